@@ -0,0 +1,121 @@
+package com.windforce.common.resource.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.windforce.common.resource.other.Accessors;
+import com.windforce.common.resource.other.Getter;
+import com.windforce.common.resource.other.Setter;
+
+/**
+ * {@link Accessors}生成的访问器与反射访问的性能对比
+ * 
+ * <pre>
+ * 访问器与反射对象都保存在普通的实例属性中(与索引获取器、单元格转换器的用法一致)，
+ * JIT 无法将其视为常量，测试的是实际使用时的调用开销
+ * </pre>
+ * 
+ * @author frank
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+
+	private BenchReward target;
+	private int value;
+
+	private Field field;
+	private Method method;
+	private Getter fieldGetter;
+	private Getter methodGetter;
+	private Setter fieldSetter;
+	private Supplier<BenchReward> constructor;
+
+	@Setup
+	public void setup() throws Exception {
+		target = new BenchReward();
+		target.setCount(7);
+		field = BenchReward.class.getDeclaredField("count");
+		field.setAccessible(true);
+		method = BenchReward.class.getMethod("getCount");
+		fieldGetter = Accessors.getter(field);
+		methodGetter = Accessors.getter(method);
+		fieldSetter = Accessors.setter(field);
+		constructor = Accessors.constructor(BenchReward.class);
+	}
+
+	@Benchmark
+	public Object fieldGetReflection() throws Exception {
+		return field.get(target);
+	}
+
+	@Benchmark
+	public Object fieldGetAccessor() {
+		return fieldGetter.getValue(target);
+	}
+
+	@Benchmark
+	public BenchReward fieldSetIntReflection() throws Exception {
+		field.setInt(target, value++);
+		return target;
+	}
+
+	@Benchmark
+	public BenchReward fieldSetIntAccessor() {
+		fieldSetter.setInt(target, value++);
+		return target;
+	}
+
+	@Benchmark
+	public BenchReward fieldSetBoxedAccessor() {
+		fieldSetter.setValue(target, value++);
+		return target;
+	}
+
+	@Benchmark
+	public Object methodGetReflection() throws Exception {
+		return method.invoke(target);
+	}
+
+	@Benchmark
+	public Object methodGetAccessor() {
+		return methodGetter.getValue(target);
+	}
+
+	@Benchmark
+	public BenchReward newInstanceReflection() throws Exception {
+		return BenchReward.class.newInstance();
+	}
+
+	@Benchmark
+	public BenchReward newInstanceAccessor() {
+		return constructor.get();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder().include(AccessorBenchmark.class.getSimpleName()).build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.windforce.common.resource.benchmark;
+
+import java.util.List;
+
+import com.windforce.common.resource.anno.Id;
+import com.windforce.common.resource.anno.Index;
+import com.windforce.common.resource.anno.Resource;
+
+/**
+ * 查询性能测试使用的合成资源
+ * 
+ * @author frank
+ */
+@Resource(format = "json", suffix = "json")
+public class BenchItem {
+
+	public static final String INDEX_NAME = "bench_item_name";
+	public static final String INDEX_GROUP = "bench_item_group";
+
+	/** 每个分组的资源数量 */
+	public static final int GROUP_SIZE = 20;
+
+	@Id
+	private int id;
+	@Index(name = INDEX_NAME, unique = true)
+	private String name;
+	@Index(name = INDEX_GROUP)
+	private int group;
+	private int level;
+	private long price;
+	private List<Integer> values;
+
+	/**
+	 * 生成指定序号的资源内容
+	 * 
+	 * @param i
+	 *            序号
+	 * @param builder
+	 *            JSON 内容
+	 */
+	static void write(int i, StringBuilder builder) {
+		builder.append("{\"id\":").append(i);
+		builder.append(",\"name\":\"").append(nameOf(i)).append('"');
+		builder.append(",\"group\":").append(i / GROUP_SIZE);
+		builder.append(",\"level\":").append(i % 100);
+		builder.append(",\"price\":").append(i * 10L);
+		builder.append(",\"values\":[").append(i % 7).append(',').append(i % 11).append(']');
+		builder.append('}');
+	}
+
+	/**
+	 * 获取指定序号的资源名
+	 * 
+	 * @param i
+	 * @return
+	 */
+	static String nameOf(int i) {
+		return "item-" + i;
+	}
+
+	// Getter and Setter ...
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getGroup() {
+		return group;
+	}
+
+	public void setGroup(int group) {
+		this.group = group;
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public void setLevel(int level) {
+		this.level = level;
+	}
+
+	public long getPrice() {
+		return price;
+	}
+
+	public void setPrice(long price) {
+		this.price = price;
+	}
+
+	public List<Integer> getValues() {
+		return values;
+	}
+
+	public void setValues(List<Integer> values) {
+		this.values = values;
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.windforce.common.resource.benchmark;
+
+/**
+ * 解码性能测试使用的枚举属性
+ * 
+ * @author frank
+ */
+public enum BenchQuality {
+
+	COMMON, RARE, EPIC, LEGEND;
+
+}
@@ -0,0 +1,31 @@
+package com.windforce.common.resource.benchmark;
+
+/**
+ * 解码性能测试使用的嵌套对象属性
+ * 
+ * @author frank
+ */
+public class BenchReward {
+
+	private int id;
+	private int count;
+
+	// Getter and Setter ...
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public void setCount(int count) {
+		this.count = count;
+	}
+
+}
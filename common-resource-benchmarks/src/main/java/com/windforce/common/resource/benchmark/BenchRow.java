@@ -0,0 +1,167 @@
+package com.windforce.common.resource.benchmark;
+
+import java.util.List;
+import java.util.Map;
+
+import com.windforce.common.resource.anno.Id;
+import com.windforce.common.resource.anno.Resource;
+
+/**
+ * 解码性能测试使用的合成资源
+ * 
+ * <pre>
+ * 覆盖基本类型、枚举、{@link List}、{@link Map}与嵌套对象几类属性，
+ * 同一序号生成的 Excel 单元格内容与 JSON 内容一致
+ * </pre>
+ * 
+ * @author frank
+ */
+@Resource
+public class BenchRow {
+
+	/** 属性名(Excel 的属性控制行与 JSON 的键) */
+	static final String[] COLUMNS = { "id", "name", "level", "price", "rate", "enabled", "quality", "values",
+			"rewards", "reward" };
+
+	/** 以字符串形式出现在 JSON 中的属性 */
+	private static final boolean[] QUOTED = { false, true, false, false, false, false, true, false, false, false };
+
+	@Id
+	private int id;
+	private String name;
+	private int level;
+	private long price;
+	private double rate;
+	private boolean enabled;
+	private BenchQuality quality;
+	private List<Integer> values;
+	private Map<Integer, BenchReward> rewards;
+	private BenchReward reward;
+
+	/**
+	 * 生成指定序号的单元格内容
+	 * 
+	 * @param i
+	 *            序号
+	 * @return 与{@link #COLUMNS}一一对应的内容
+	 */
+	static String[] cells(int i) {
+		BenchQuality[] qualities = BenchQuality.values();
+		return new String[] { String.valueOf(i), "row-" + i, String.valueOf(i % 100), String.valueOf(i * 10L),
+				String.valueOf((i % 1000) / 8.0), String.valueOf(i % 2 == 0), qualities[i % qualities.length].name(),
+				"[" + (i % 7) + "," + (i % 11) + "," + (i % 13) + "]",
+				"{\"1\":" + reward(i % 50, 1) + ",\"2\":" + reward(i % 60, i % 9 + 1) + "}", reward(i % 40, i % 5 + 1) };
+	}
+
+	/**
+	 * 生成指定序号的 JSON 内容
+	 * 
+	 * @param i
+	 *            序号
+	 * @param builder
+	 *            JSON 内容
+	 */
+	static void write(int i, StringBuilder builder) {
+		String[] cells = cells(i);
+		builder.append('{');
+		for (int j = 0; j < COLUMNS.length; j++) {
+			if (j > 0) {
+				builder.append(',');
+			}
+			builder.append('"').append(COLUMNS[j]).append("\":");
+			if (QUOTED[j]) {
+				builder.append('"').append(cells[j]).append('"');
+			} else {
+				builder.append(cells[j]);
+			}
+		}
+		builder.append('}');
+	}
+
+	private static String reward(int id, int count) {
+		return "{\"id\":" + id + ",\"count\":" + count + "}";
+	}
+
+	// Getter and Setter ...
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public void setLevel(int level) {
+		this.level = level;
+	}
+
+	public long getPrice() {
+		return price;
+	}
+
+	public void setPrice(long price) {
+		this.price = price;
+	}
+
+	public double getRate() {
+		return rate;
+	}
+
+	public void setRate(double rate) {
+		this.rate = rate;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public BenchQuality getQuality() {
+		return quality;
+	}
+
+	public void setQuality(BenchQuality quality) {
+		this.quality = quality;
+	}
+
+	public List<Integer> getValues() {
+		return values;
+	}
+
+	public void setValues(List<Integer> values) {
+		this.values = values;
+	}
+
+	public Map<Integer, BenchReward> getRewards() {
+		return rewards;
+	}
+
+	public void setRewards(Map<Integer, BenchReward> rewards) {
+		this.rewards = rewards;
+	}
+
+	public BenchReward getReward() {
+		return reward;
+	}
+
+	public void setReward(BenchReward reward) {
+		this.reward = reward;
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.windforce.common.resource.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.support.ConversionServiceFactoryBean;
+import org.springframework.context.support.GenericApplicationContext;
+
+import com.windforce.common.resource.Storage;
+import com.windforce.common.resource.StorageManager;
+import com.windforce.common.resource.other.FormatDefinition;
+import com.windforce.common.resource.other.ResourceDefinition;
+import com.windforce.common.resource.reader.ExcelReader;
+import com.windforce.common.resource.reader.JsonReader;
+import com.windforce.common.resource.reader.ReaderHolder;
+
+/**
+ * 性能测试的公共支持方法
+ * 
+ * <pre>
+ * 资源文件在临时目录中按行数生成，存储空间通过手动创建的 Spring 容器加载，不依赖任何外部文件
+ * </pre>
+ * 
+ * @author frank
+ */
+public class BenchmarkSupport {
+
+	/**
+	 * 创建只包含资源管理相关组件的 Spring 容器
+	 * 
+	 * @return
+	 */
+	public static GenericApplicationContext createContext() {
+		GenericApplicationContext context = new GenericApplicationContext();
+		AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+		context.registerBeanDefinition("excelReader", new RootBeanDefinition(ExcelReader.class));
+		context.registerBeanDefinition("jsonReader", new RootBeanDefinition(JsonReader.class));
+		context.registerBeanDefinition("readerHolder", new RootBeanDefinition(ReaderHolder.class));
+		context.registerBeanDefinition("conversionService", new RootBeanDefinition(ConversionServiceFactoryBean.class));
+		context.registerBeanDefinition("storageManager", new RootBeanDefinition(StorageManager.class));
+		context.refresh();
+		return context;
+	}
+
+	/**
+	 * 生成指定行数的{@link BenchItem}资源文件并加载其存储空间
+	 * 
+	 * @param context
+	 *            Spring 容器
+	 * @param rows
+	 *            资源行数
+	 * @return
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	public static Storage<Integer, BenchItem> loadItems(GenericApplicationContext context, int rows)
+			throws IOException {
+		File dir = createTempDir();
+		Writer writer = open(new File(dir, BenchItem.class.getSimpleName() + ".json"));
+		try {
+			StringBuilder builder = new StringBuilder(128);
+			writer.write('[');
+			for (int i = 0; i < rows; i++) {
+				builder.setLength(0);
+				if (i > 0) {
+					builder.append(",\n");
+				}
+				BenchItem.write(i, builder);
+				writer.append(builder);
+			}
+			writer.write(']');
+		} finally {
+			writer.close();
+		}
+
+		StorageManager manager = context.getBean(StorageManager.class);
+		FormatDefinition format = new FormatDefinition("file:" + dir.getAbsolutePath(), "json", "json");
+		manager.initialize(new ResourceDefinition(BenchItem.class, format));
+		return (Storage<Integer, BenchItem>) manager.getStorage(BenchItem.class);
+	}
+
+	/**
+	 * 创建测试结束后自动删除的临时目录
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	public static File createTempDir() throws IOException {
+		File file = File.createTempFile("resource-benchmark", "");
+		if (!file.delete() || !file.mkdir()) {
+			throw new IOException("无法创建临时目录[" + file + "]");
+		}
+		file.deleteOnExit();
+		return file;
+	}
+
+	/**
+	 * 以 UTF-8 编码打开文件
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static Writer open(File file) throws IOException {
+		file.deleteOnExit();
+		return new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+	}
+
+}
@@ -0,0 +1,192 @@
+package com.windforce.common.resource.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.windforce.common.resource.reader.ExcelReader;
+import com.windforce.common.resource.reader.JsonReader;
+import com.windforce.common.resource.reader.ResourceReader;
+
+/**
+ * {@link ResourceReader}解码资源文件的性能测试
+ * 
+ * <pre>
+ * 按资源行数({@link #rows})与文件格式({@link #format})组合测试，每次操作完整解码一个文件：
+ * 1.主结果为每秒解码的文件数，辅助计数器 decodedRows 为每秒解码的行数
+ * 2.使用 -prof gc 时 gc.alloc.rate.norm 为每个文件分配的字节数，除以行数即为每行分配的字节数
+ * 直接运行{@link #main(String[])}会启用 GC 分析并在结束后输出每种组合的行数/秒与字节/行
+ * 当前版本的 POI 会把整个工作簿载入内存，百万行的 Excel 文件需要通过 -jvmArgs 指定更大的堆
+ * </pre>
+ * 
+ * @author frank
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ReaderBenchmark {
+
+	/** 资源行数 */
+	@Param({ "1000", "100000", "1000000" })
+	private int rows;
+
+	/** 文件格式，与{@link ResourceReader#getFormat()}一致 */
+	@Param({ "excel", "json" })
+	private String format;
+
+	private ResourceReader reader;
+	private File file;
+
+	/**
+	 * 解码行数的计数器
+	 * 
+	 * @author frank
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class RowCounter {
+		/** 已解码的行数 */
+		public long decodedRows;
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		File dir = BenchmarkSupport.createTempDir();
+		if ("excel".equals(format)) {
+			reader = new ExcelReader();
+			file = new File(dir, BenchRow.class.getSimpleName() + ".xlsx");
+			writeExcel(file, rows);
+		} else if ("json".equals(format)) {
+			reader = new JsonReader();
+			file = new File(dir, BenchRow.class.getSimpleName() + ".json");
+			writeJson(file, rows);
+		} else {
+			throw new IllegalArgumentException("不支持的文件格式[" + format + "]");
+		}
+
+		// 确认生成的文件可以被完整解码
+		List<BenchRow> result = read();
+		BenchRow last = result.get(result.size() - 1);
+		if (result.size() != rows || last.getRewards().size() != 2 || last.getReward() == null
+				|| last.getQuality() == null) {
+			throw new IllegalStateException("资源文件[" + file + "]的解码结果与生成内容不一致");
+		}
+	}
+
+	@Benchmark
+	public List<BenchRow> read(RowCounter counter) throws IOException {
+		List<BenchRow> result = read();
+		counter.decodedRows += result.size();
+		return result;
+	}
+
+	private List<BenchRow> read() throws IOException {
+		InputStream input = new BufferedInputStream(new FileInputStream(file));
+		try {
+			return reader.read(input, BenchRow.class);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * 生成 Excel 资源文件，格式与资源表格的约定一致：
+	 * 第一行为资源名，第二行为属性控制行，最后一行数据的第一列为结束标识
+	 */
+	static void writeExcel(File file, int rows) throws IOException {
+		SheetWriter writer = new SheetWriter(file, BenchRow.class.getSimpleName());
+		try {
+			writer.row(BenchRow.class.getSimpleName());
+			String[] header = new String[BenchRow.COLUMNS.length + 1];
+			header[0] = "SERVER";
+			System.arraycopy(BenchRow.COLUMNS, 0, header, 1, BenchRow.COLUMNS.length);
+			writer.row(header);
+
+			String[] line = new String[header.length];
+			for (int i = 0; i < rows; i++) {
+				String[] cells = BenchRow.cells(i);
+				line[0] = i == rows - 1 ? "END" : null;
+				System.arraycopy(cells, 0, line, 1, cells.length);
+				writer.row(line);
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/** 生成 JSON 资源文件 */
+	static void writeJson(File file, int rows) throws IOException {
+		Writer writer = BenchmarkSupport.open(file);
+		try {
+			StringBuilder builder = new StringBuilder(256);
+			writer.write('[');
+			for (int i = 0; i < rows; i++) {
+				builder.setLength(0);
+				if (i > 0) {
+					builder.append(",\n");
+				}
+				BenchRow.write(i, builder);
+				writer.append(builder);
+			}
+			writer.write(']');
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * 启用 GC 分析运行全部测试，并输出每种组合的行数/秒与字节/行
+	 * 
+	 * @param args
+	 * @throws RunnerException
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder().include(ReaderBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build();
+		Collection<RunResult> results = new Runner(options).run();
+
+		System.out.println();
+		System.out.println(String.format("%-8s %10s %16s %14s", "format", "rows", "rows/s", "bytes/row"));
+		for (RunResult result : results) {
+			BenchmarkParams params = result.getParams();
+			int rows = Integer.parseInt(params.getParam("rows"));
+			Result<?> decoded = result.getSecondaryResults().get("decodedRows");
+			Result<?> allocated = result.getSecondaryResults().get("gc.alloc.rate.norm");
+			System.out.println(String.format("%-8s %10d %16.0f %14.1f", params.getParam("format"), rows,
+					decoded == null ? Double.NaN : decoded.getScore(),
+					allocated == null ? Double.NaN : allocated.getScore() / rows));
+		}
+	}
+
+}
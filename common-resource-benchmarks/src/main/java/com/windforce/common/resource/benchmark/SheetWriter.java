@@ -0,0 +1,142 @@
+package com.windforce.common.resource.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 逐行写出只包含一个工作表的 xlsx 文件
+ * 
+ * <pre>
+ * 当前使用的 POI 版本没有流式写出的支持，百万行的文件无法在内存中构建，
+ * 这里直接按 OOXML 格式写出最小的文件结构，单元格全部使用内联字符串
+ * </pre>
+ * 
+ * @author frank
+ */
+public class SheetWriter implements Closeable {
+
+	private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+	private static final String NS_REL = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+	private static final String NS_PACKAGE_REL = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+	private final ZipOutputStream zip;
+	private final Writer writer;
+	/** 已写出的行数 */
+	private int rowCount;
+
+	/**
+	 * 构造方法
+	 * 
+	 * @param file
+	 *            目标文件
+	 * @param sheetName
+	 *            工作表名
+	 * @throws IOException
+	 */
+	public SheetWriter(File file, String sheetName) throws IOException {
+		file.deleteOnExit();
+		zip = new ZipOutputStream(new FileOutputStream(file));
+		writer = new BufferedWriter(new OutputStreamWriter(zip, Charset.forName("UTF-8")), 1 << 16);
+
+		entry("[Content_Types].xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+				+ "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+				+ "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+				+ "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+				+ "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+				+ "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+				+ "<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>"
+				+ "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+				+ "</Types>");
+		entry("_rels/.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" + "<Relationships xmlns=\""
+				+ NS_PACKAGE_REL + "\">" + "<Relationship Id=\"rId1\" Type=\"" + NS_REL
+				+ "/officeDocument\" Target=\"xl/workbook.xml\"/>" + "</Relationships>");
+		entry("xl/workbook.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" + "<workbook xmlns=\""
+				+ NS_MAIN + "\" xmlns:r=\"" + NS_REL + "\">" + "<sheets><sheet name=\"" + escape(sheetName)
+				+ "\" sheetId=\"1\" r:id=\"rId1\"/></sheets>" + "</workbook>");
+		entry("xl/_rels/workbook.xml.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+				+ "<Relationships xmlns=\"" + NS_PACKAGE_REL + "\">" + "<Relationship Id=\"rId1\" Type=\"" + NS_REL
+				+ "/worksheet\" Target=\"worksheets/sheet1.xml\"/>" + "<Relationship Id=\"rId2\" Type=\"" + NS_REL
+				+ "/styles\" Target=\"styles.xml\"/>" + "<Relationship Id=\"rId3\" Type=\"" + NS_REL
+				+ "/sharedStrings\" Target=\"sharedStrings.xml\"/>" + "</Relationships>");
+		// 样式表与共享字符串表不能省略，单元格不会引用其中的内容
+		entry("xl/styles.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" + "<styleSheet xmlns=\""
+				+ NS_MAIN + "\">" + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+				+ "<fills count=\"1\"><fill><patternFill patternType=\"none\"/></fill></fills>"
+				+ "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+				+ "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+				+ "<cellXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/></cellXfs>"
+				+ "</styleSheet>");
+		entry("xl/sharedStrings.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" + "<sst xmlns=\""
+				+ NS_MAIN + "\" count=\"0\" uniqueCount=\"0\"/>");
+
+		zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+		writer.write("<worksheet xmlns=\"" + NS_MAIN + "\"><sheetData>");
+	}
+
+	/**
+	 * 写出一行，第一个单元格位于第一列
+	 * 
+	 * @param cells
+	 *            单元格内容，null 表示空单元格
+	 * @throws IOException
+	 */
+	public void row(String... cells) throws IOException {
+		int r = ++rowCount;
+		writer.write("<row r=\"");
+		writer.write(String.valueOf(r));
+		writer.write("\">");
+		for (int i = 0; i < cells.length; i++) {
+			if (cells[i] == null) {
+				continue;
+			}
+			writer.write("<c r=\"");
+			writer.write(column(i));
+			writer.write(String.valueOf(r));
+			writer.write("\" t=\"inlineStr\"><is><t>");
+			writer.write(escape(cells[i]));
+			writer.write("</t></is></c>");
+		}
+		writer.write("</row>");
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.write("</sheetData></worksheet>");
+		writer.flush();
+		zip.closeEntry();
+		writer.close();
+	}
+
+	private void entry(String name, String content) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		writer.write(content);
+		writer.flush();
+		zip.closeEntry();
+	}
+
+	/** 列序号(从 0 开始)对应的列名 */
+	private static String column(int index) {
+		StringBuilder builder = new StringBuilder(3);
+		for (int i = index + 1; i > 0; i = (i - 1) / 26) {
+			builder.insert(0, (char) ('A' + (i - 1) % 26));
+		}
+		return builder.toString();
+	}
+
+	private static String escape(String content) {
+		if (content.indexOf('&') < 0 && content.indexOf('<') < 0 && content.indexOf('>') < 0) {
+			return content;
+		}
+		return content.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+
+}
@@ -0,0 +1,152 @@
+package com.windforce.common.resource.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.GenericApplicationContext;
+
+import com.windforce.common.resource.Storage;
+
+/**
+ * {@link Storage}查询路径的性能测试
+ * 
+ * <pre>
+ * 按资源行数({@link #rows})与是否同时执行重新加载({@link #reloading})组合测试，
+ * 线程数通过 JMH 的 -t 参数指定，直接运行{@link #main(String[])}会依次使用 1/4/8 个线程
+ * </pre>
+ * 
+ * @author frank
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageLookupBenchmark {
+
+	/** 资源行数 */
+	@Param({ "1000", "100000" })
+	private int rows;
+
+	/** 测试期间是否在后台线程中不断重新加载 */
+	@Param({ "false", "true" })
+	private boolean reloading;
+
+	private GenericApplicationContext context;
+	private Storage<Integer, BenchItem> storage;
+	/** 预先生成的资源名，避免测试过程中拼接字符串 */
+	private String[] names;
+	private Thread reloader;
+	private volatile boolean running;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		context = BenchmarkSupport.createContext();
+		storage = BenchmarkSupport.loadItems(context, rows);
+		names = new String[rows];
+		for (int i = 0; i < rows; i++) {
+			names[i] = BenchItem.nameOf(i);
+		}
+		if (!reloading) {
+			return;
+		}
+		running = true;
+		reloader = new Thread("storage-reloader") {
+			@Override
+			public void run() {
+				while (running) {
+					storage.reload();
+				}
+			}
+		};
+		reloader.setDaemon(true);
+		reloader.start();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		running = false;
+		if (reloader != null) {
+			reloader.join();
+		}
+		context.close();
+	}
+
+	private int randomId() {
+		return ThreadLocalRandom.current().nextInt(rows);
+	}
+
+	@Benchmark
+	public BenchItem get() {
+		return storage.get(randomId(), false);
+	}
+
+	@Benchmark
+	public BenchItem getBoxed() {
+		Integer key = randomId();
+		return storage.get(key, false);
+	}
+
+	@Benchmark
+	public BenchItem getMissing() {
+		return storage.get(rows + randomId(), false);
+	}
+
+	@Benchmark
+	public boolean containsId() {
+		return storage.containsId(randomId());
+	}
+
+	@Benchmark
+	public List<BenchItem> getIndex() {
+		return storage.getIndex(BenchItem.INDEX_GROUP, randomId() / BenchItem.GROUP_SIZE);
+	}
+
+	@Benchmark
+	public BenchItem getUnique() {
+		return storage.getUnique(BenchItem.INDEX_NAME, names[randomId()]);
+	}
+
+	@Benchmark
+	public void getAll(Blackhole blackhole) {
+		for (BenchItem item : storage.getAll()) {
+			blackhole.consume(item);
+		}
+	}
+
+	/**
+	 * 依次使用 1/4/8 个线程运行全部测试
+	 * 
+	 * @param args
+	 * @throws RunnerException
+	 */
+	public static void main(String[] args) throws RunnerException {
+		for (int threads : new int[] { 1, 4, 8 }) {
+			Options options = new OptionsBuilder().include(StorageLookupBenchmark.class.getSimpleName())
+					.threads(threads).build();
+			new Runner(options).run();
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.windforce.common.resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.windforce.common.resource.store.RowBitmap;
+
+/**
+ * 位图索引的组合查询
+ * 
+ * <pre>
+ * 查询对象绑定创建时的存储空间快照，位图中的行序号只在同一个查询对象内有意义，
+ * 不同查询对象(例如重新加载前后)获取的位图不能混合使用
+ * 
+ * 用法示例：
+ * BitmapQuery&lt;Item&gt; query = storage.bitmapQuery();
+ * RowBitmap bitmap = query.get(Item.INDEX_QUALITY, Quality.EPIC).and(query.get(Item.INDEX_SLOT, Slot.WEAPON));
+ * List&lt;Item&gt; items = query.list(query.not(bitmap));
+ * </pre>
+ * 
+ * @author frank
+ */
+public class BitmapQuery<V> {
+
+	/** 按加载顺序排列的资源实例，下标即为行序号 */
+	private final List<V> rows;
+	/** 位图索引内容 */
+	private final Map<String, Map<Object, RowBitmap>> bitmaps;
+
+	BitmapQuery(List<V> rows, Map<String, Map<Object, RowBitmap>> bitmaps) {
+		this.rows = rows;
+		this.bitmaps = bitmaps;
+	}
+
+	/**
+	 * 获取位图索引中指定索引值的位图
+	 * 
+	 * @param name
+	 *            位图索引名
+	 * @param value
+	 *            索引值
+	 * @return 不存在会返回{@link RowBitmap#EMPTY}
+	 */
+	public RowBitmap get(String name, Object value) {
+		Map<Object, RowBitmap> index = bitmaps.get(name);
+		if (index == null) {
+			return RowBitmap.EMPTY;
+		}
+		RowBitmap result = index.get(value);
+		return result == null ? RowBitmap.EMPTY : result;
+	}
+
+	/**
+	 * 获取位图索引中任意一个索引值的位图
+	 * 
+	 * @param name
+	 *            位图索引名
+	 * @param values
+	 *            索引值
+	 * @return
+	 */
+	public RowBitmap anyOf(String name, Object... values) {
+		RowBitmap result = RowBitmap.EMPTY;
+		for (Object value : values) {
+			result = result.or(get(name, value));
+		}
+		return result;
+	}
+
+	/**
+	 * 获取包含全部资源实例的位图
+	 * 
+	 * @return
+	 */
+	public RowBitmap all() {
+		return RowBitmap.full(rows.size());
+	}
+
+	/**
+	 * 对位图进行非运算
+	 * 
+	 * @param bitmap
+	 *            位图
+	 * @return 不包含在位图中的全部资源实例的位图
+	 */
+	public RowBitmap not(RowBitmap bitmap) {
+		return bitmap.not(rows.size());
+	}
+
+	/**
+	 * 获取位图对应的资源实例
+	 * 
+	 * @param bitmap
+	 *            位图
+	 * @return 按加载顺序排列，不存在会返回{@link Collections#EMPTY_LIST}
+	 */
+	@SuppressWarnings("unchecked")
+	public List<V> list(RowBitmap bitmap) {
+		if (bitmap.isEmpty()) {
+			return Collections.EMPTY_LIST;
+		}
+		List<V> result = new ArrayList<V>(bitmap.cardinality());
+		for (int row = bitmap.nextRow(0); row >= 0 && row < rows.size(); row = bitmap.nextRow(row + 1)) {
+			result.add(rows.get(row));
+		}
+		return result;
+	}
+
+	/**
+	 * 获取位图对应的第一个资源实例
+	 * 
+	 * @param bitmap
+	 *            位图
+	 * @return 不存在会返回 null
+	 */
+	public V first(RowBitmap bitmap) {
+		int row = bitmap.nextRow(0);
+		if (row < 0 || row >= rows.size()) {
+			return null;
+		}
+		return rows.get(row);
+	}
+
+	/**
+	 * 获取资源实例总数
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return rows.size();
+	}
+
+}
@@ -0,0 +1,208 @@
+package com.windforce.common.resource;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.Buffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.BeanFactory;
+
+import com.windforce.common.resource.anno.Inject;
+
+/**
+ * 对象图的堆内存占用估算器
+ * 
+ * <pre>
+ * 按 HotSpot 的对象布局估算：对象头 12 字节(未开启压缩指针时为 16 字节)，引用 4 字节(堆大于 32G 时为 8 字节)，按 8 字节对齐
+ * 同一个估算器内已经统计过的对象不会再次统计，依次估算多个对象图时，后面的结果只包含其独有的部分
+ * 以下对象不会被统计或遍历：类对象、枚举、反射对象、存储空间、Spring 容器以及{@link Inject}声明的属性域
+ * 缓冲区只统计对象本身，直接缓冲区的容量计入堆外内存
+ * 估算结果不考虑字段重排与填充的细节，只用于比较不同存储空间之间的开销
+ * </pre>
+ * 
+ * @author frank
+ */
+class FootprintEstimator {
+
+	/** 是否为 64 位虚拟机 */
+	private static final boolean ARCH_64 = !"32".equals(System.getProperty("sun.arch.data.model"));
+	/** 是否开启压缩指针(堆小于 32G 时默认开启) */
+	private static final boolean COMPRESSED = ARCH_64 && Runtime.getRuntime().maxMemory() < (32L << 30);
+	/** 引用大小 */
+	private static final int REFERENCE = ARCH_64 && !COMPRESSED ? 8 : 4;
+	/** 对象头大小 */
+	private static final int HEADER = !ARCH_64 ? 8 : COMPRESSED ? 12 : 16;
+	/** 数组头大小 */
+	private static final int ARRAY_HEADER = HEADER + 4;
+	/** 对齐大小 */
+	private static final int ALIGNMENT = 8;
+
+	/** 类型对应的对象布局 */
+	private static final ConcurrentMap<Class<?>, Layout> LAYOUTS = new ConcurrentHashMap<Class<?>, Layout>();
+
+	/** 已经统计过的对象 */
+	private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+	/** 堆外内存字节数 */
+	private long offHeap;
+
+	/**
+	 * 估算对象图中尚未统计过的对象的堆内存占用
+	 * 
+	 * @param root
+	 *            根对象
+	 * @return 字节数
+	 */
+	long measure(Object root) {
+		long result = 0;
+		Deque<Object> stack = new ArrayDeque<Object>();
+		push(stack, root);
+		while (!stack.isEmpty()) {
+			Object obj = stack.pop();
+			Class<?> clz = obj.getClass();
+			if (clz.isArray()) {
+				result += measureArray(stack, obj, clz.getComponentType());
+				continue;
+			}
+			Layout layout = getLayout(clz);
+			result += layout.shallow;
+			if (obj instanceof Buffer) {
+				Buffer buffer = (Buffer) obj;
+				if (buffer.isDirect()) {
+					offHeap += buffer.capacity();
+				}
+				continue;
+			}
+			for (Field field : layout.references) {
+				try {
+					push(stack, field.get(obj));
+				} catch (IllegalAccessException e) {
+					// 无法访问的属性域只统计引用本身
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 获取已统计的直接缓冲区容量之和
+	 * 
+	 * @return
+	 */
+	long getOffHeap() {
+		return offHeap;
+	}
+
+	private long measureArray(Deque<Object> stack, Object array, Class<?> component) {
+		if (!component.isPrimitive()) {
+			Object[] elements = (Object[]) array;
+			for (Object element : elements) {
+				push(stack, element);
+			}
+			return align(ARRAY_HEADER + (long) elements.length * REFERENCE);
+		}
+		int length = Array.getLength(array);
+		return align(ARRAY_HEADER + (long) length * sizeOf(component));
+	}
+
+	private void push(Deque<Object> stack, Object obj) {
+		if (obj == null || isExcluded(obj)) {
+			return;
+		}
+		if (visited.add(obj)) {
+			stack.push(obj);
+		}
+	}
+
+	private static boolean isExcluded(Object obj) {
+		return obj instanceof Class || obj instanceof Enum || obj instanceof AccessibleObject
+				|| obj instanceof ClassLoader || obj instanceof Thread || obj instanceof Reference
+				|| obj instanceof Storage || obj instanceof BeanFactory;
+	}
+
+	/**
+	 * 获取指定类型的对象布局
+	 * 
+	 * @param clz
+	 * @return
+	 */
+	private static Layout getLayout(Class<?> clz) {
+		Layout result = LAYOUTS.get(clz);
+		if (result != null) {
+			return result;
+		}
+		long shallow = HEADER;
+		List<Field> references = new ArrayList<Field>();
+		for (Class<?> current = clz; current != null && current != Object.class; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+				Class<?> type = field.getType();
+				if (type.isPrimitive()) {
+					shallow += sizeOf(type);
+					continue;
+				}
+				shallow += REFERENCE;
+				if (field.isAnnotationPresent(Inject.class)) {
+					continue;
+				}
+				try {
+					field.setAccessible(true);
+					references.add(field);
+				} catch (RuntimeException e) {
+					// 无法访问的属性域(例如未开放的 JDK 模块)只统计引用本身
+				}
+			}
+		}
+		result = new Layout(align(shallow), references.toArray(new Field[references.size()]));
+		Layout prev = LAYOUTS.putIfAbsent(clz, result);
+		return prev == null ? result : prev;
+	}
+
+	private static int sizeOf(Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return 8;
+		}
+		if (type == int.class || type == float.class) {
+			return 4;
+		}
+		if (type == short.class || type == char.class) {
+			return 2;
+		}
+		return 1;
+	}
+
+	private static long align(long size) {
+		return (size + ALIGNMENT - 1) & ~(ALIGNMENT - 1);
+	}
+
+	/**
+	 * 对象布局
+	 * 
+	 * @author frank
+	 */
+	private static class Layout {
+
+		/** 对象本身的大小 */
+		private final long shallow;
+		/** 需要遍历的引用类型属性域 */
+		private final Field[] references;
+
+		public Layout(long shallow, Field[] references) {
+			this.shallow = shallow;
+			this.references = references;
+		}
+	}
+
+}
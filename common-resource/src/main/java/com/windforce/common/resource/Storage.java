@@ -2,19 +2,26 @@ package com.windforce.common.resource;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Observable;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,13 +33,27 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.core.io.Resource;
 
-import com.windforce.common.resource.other.Getter;
+import com.windforce.common.resource.anno.CompositeIndex;
+import com.windforce.common.resource.anno.IndexType;
+import com.windforce.common.resource.other.CompositeIndexGetter;
+import com.windforce.common.resource.other.DeepEquals;
+import com.windforce.common.resource.other.Deduplicator;
 import com.windforce.common.resource.other.GetterBuilder;
+import com.windforce.common.resource.other.IdGetter;
+import com.windforce.common.resource.other.IdType;
 import com.windforce.common.resource.other.IndexGetter;
 import com.windforce.common.resource.other.InjectDefinition;
 import com.windforce.common.resource.other.ResourceDefinition;
 import com.windforce.common.resource.reader.ReaderHolder;
 import com.windforce.common.resource.reader.ResourceReader;
+import com.windforce.common.resource.store.CompositeTable;
+import com.windforce.common.resource.store.OffHeapValueStore;
+import com.windforce.common.resource.store.RangeTable;
+import com.windforce.common.resource.store.RowBitmap;
+import com.windforce.common.resource.store.RowCodec;
+import com.windforce.common.resource.store.RowInitializer;
+import com.windforce.common.resource.store.ValueStore;
+import com.windforce.common.resource.store.ValueStoreBuilder;
 import com.windforce.common.utility.JsonUtils;
 
 /**
@@ -49,6 +70,12 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 
 	/** 已初始化标识 */
 	private boolean initialized;
+	/** 正在执行初始化的线程，初始化期间的重入访问不需要等待 */
+	private Thread initializing;
+	/** 首次加载完成标识，读取操作只检查该标识 */
+	private volatile boolean ready;
+	/** 延迟加载的资源定义，在首次访问时才进行初始化 */
+	private ResourceDefinition lazyDefinition;
 
 	/** 资源定义 */
 	private ResourceDefinition resourceDefinition;
@@ -65,53 +92,76 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 
 		// 设置初始化标识
 		this.initialized = true;
-		// 获取资源信息
-		this.resourceDefinition = definition;
-		this.reader = readerHolder.getReader(definition.getFormat());
-		this.identifier = GetterBuilder.createIdGetter(definition.getClz());
-		this.indexGetters = GetterBuilder.createIndexGetters(definition.getClz());
-		// 注入静态属性
-		Set<InjectDefinition> injects = definition.getStaticInjects();
-		for (InjectDefinition inject : injects) {
-			Field field = inject.getField();
-			Object injectValue = inject.getValue(this.applicationContext);
-			try {
-				field.set(null, injectValue);
-			} catch (Exception e) {
-				FormattingTuple message = MessageFormatter.format("无法注入静态资源[{}]的[{}]属性值", definition.getClz().getName(),
-						inject.getField().getName());
-				logger.error(message.getMessage());
-				throw new IllegalStateException(message.getMessage());
+		this.initializing = Thread.currentThread();
+		try {
+			// 获取资源信息
+			this.resourceDefinition = definition;
+			this.reader = readerHolder.getReader(definition.getFormat());
+			this.identifier = GetterBuilder.createIdGetter(definition.getClz());
+			this.indexGetters = GetterBuilder.createIndexGetters(definition.getClz());
+			if (definition.isOffHeap()) {
+				this.codec = new RowCodec<V>(getClz());
+			}
+			// 注入静态属性
+			Set<InjectDefinition> injects = definition.getStaticInjects();
+			for (InjectDefinition inject : injects) {
+				Object injectValue = inject.getValue(this.applicationContext);
+				try {
+					inject.getSetter().setValue(null, injectValue);
+				} catch (Exception e) {
+					FormattingTuple message = MessageFormatter.format("无法注入静态资源[{}]的[{}]属性值", definition.getClz()
+							.getName(), inject.getField().getName());
+					logger.error(message.getMessage());
+					throw new IllegalStateException(message.getMessage());
+				}
 			}
+			// 加载静态资源
+			this.reload();
+			this.ready = true;
+		} catch (RuntimeException e) {
+			// 恢复为未初始化状态，之后的访问重新进行延迟加载或抛出未初始化异常，而不是读取空的快照
+			this.initialized = false;
+			this.resourceDefinition = null;
+			this.codec = null;
+			throw e;
+		} finally {
+			this.initializing = null;
+		}
+	}
+
+	/**
+	 * 设置延迟加载的资源定义，存储空间在首次访问时才进行初始化
+	 * 
+	 * @param definition
+	 */
+	synchronized void defer(ResourceDefinition definition) {
+		if (!initialized) {
+			this.lazyDefinition = definition;
 		}
-		// 加载静态资源
-		this.reload();
 	}
 
 	/** 资源读取器 */
 	private ResourceReader reader;
 	/** 标识获取器 */
-	private Getter identifier;
+	private IdGetter identifier;
 	/** 索引获取器集合 */
 	private Map<String, IndexGetter> indexGetters;
+	/** 堆外存储编解码器，未使用堆外存储时为 null */
+	private RowCodec<V> codec;
 
-	/** 主存储空间 */
-	private Map<K, V> values = new HashMap<K, V>();
-	/** 索引存储空间 */
-	private Map<String, Map<Object, List<V>>> indexs = new HashMap<String, Map<Object, List<V>>>();
-	/** 唯一值存储空间 */
-	private Map<String, Map<Object, V>> uniques = new HashMap<String, Map<Object, V>>();
+	/** 当前生效的数据快照，读取操作只访问该引用而不需要加锁 */
+	private volatile Snapshot<K, V> snapshot = new Snapshot<K, V>();
 
-	/** 读取锁 */
-	private final Lock readLock;
-	/** 写入锁 */
-	private final Lock writeLock;
-
-	public Storage() {
-		ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-		readLock = lock.readLock();
-		writeLock = lock.writeLock();
-	}
+	/** 重新加载锁，保证同一时刻只有一个线程在构建新的快照 */
+	private final Lock reloadLock = new ReentrantLock();
+	/** 运行时计数器，关闭计数时为 null */
+	private volatile StorageMetrics metrics = new StorageMetrics();
+	/** 存储空间变更监听器 */
+	private final List<ListenerEntry<K, V>> listeners = new CopyOnWriteArrayList<ListenerEntry<K, V>>();
+	/** 按索引条件的索引名组合缓存的查询计划 */
+	private final ConcurrentMap<List<String>, StorageQuery.Plan> plans = new ConcurrentHashMap<List<String>, StorageQuery.Plan>();
+	/** 已注册的聚合视图 */
+	private final ConcurrentMap<String, StorageView<V, ?>> views = new ConcurrentHashMap<String, StorageView<V, ?>>();
 
 	/**
 	 * 获取指定键对应的静态资源实例
@@ -124,18 +174,59 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 	 */
 	public V get(K key, boolean flag) {
 		isReady();
-		readLock.lock();
-		try {
-			V result = values.get(key);
-			if (flag && result == null) {
-				FormattingTuple message = MessageFormatter.format("标识为[{}]的静态资源[{}]不存在", key, getClz().getName());
-				logger.error(message.getMessage());
-				throw new IllegalStateException(message.getMessage());
-			}
-			return result;
-		} finally {
-			readLock.unlock();
+		V result = snapshot.values.get(key);
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.get(result != null);
 		}
+		if (flag && result == null) {
+			notFound(key);
+		}
+		return result;
+	}
+
+	/**
+	 * 获取指定 int 键对应的静态资源实例，标识为 int/long 类型时查询过程不会装箱
+	 * 
+	 * @param key
+	 *            键
+	 * @param flag
+	 *            不存在时是否抛出异常,true:不存在时抛出异常,false:不抛出异常返回null
+	 * @return
+	 */
+	public V get(int key, boolean flag) {
+		isReady();
+		V result = snapshot.values.get(key);
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.get(result != null);
+		}
+		if (flag && result == null) {
+			notFound(key);
+		}
+		return result;
+	}
+
+	/**
+	 * 获取指定 long 键对应的静态资源实例，标识为 int/long 类型时查询过程不会装箱
+	 * 
+	 * @param key
+	 *            键
+	 * @param flag
+	 *            不存在时是否抛出异常,true:不存在时抛出异常,false:不抛出异常返回null
+	 * @return
+	 */
+	public V get(long key, boolean flag) {
+		isReady();
+		V result = snapshot.values.get(key);
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.get(result != null);
+		}
+		if (flag && result == null) {
+			notFound(key);
+		}
+		return result;
 	}
 
 	/**
@@ -146,12 +237,7 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 	 */
 	public boolean containsId(K key) {
 		isReady();
-		readLock.lock();
-		try {
-			return values.containsKey(key);
-		} finally {
-			readLock.unlock();
-		}
+		return snapshot.values.containsKey(key);
 	}
 
 	/**
@@ -161,12 +247,7 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 	 */
 	public Collection<V> getAll() {
 		isReady();
-		readLock.lock();
-		try {
-			return Collections.unmodifiableCollection(values.values());
-		} finally {
-			readLock.unlock();
-		}
+		return snapshot.values.values();
 	}
 
 	/**
@@ -180,16 +261,19 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 	 */
 	public V getUnique(String name, Object value) {
 		isReady();
-		readLock.lock();
-		try {
-			Map<Object, V> index = uniques.get(name);
-			if (index == null) {
-				return null;
-			}
-			return index.get(value);
-		} finally {
-			readLock.unlock();
+		Map<Object, V> index = snapshot.uniques.get(name);
+		V result;
+		if (index == null) {
+			// 只有一个属性值时的组合索引查询会匹配到该方法
+			result = findUnique(name, new Object[] { value });
+		} else {
+			result = index.get(value);
 		}
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.unique(result != null);
+		}
+		return result;
 	}
 
 	/**
@@ -199,35 +283,60 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 	 *            索引名
 	 * @param value
 	 *            索引值
-	 * @return 不存在会返回{@link Collections#EMPTY_LIST}
+	 * @return 不存在会返回{@link Collections#EMPTY_LIST}，返回的列表是只读的，不能进行元素的添加或移除
 	 */
 	@SuppressWarnings("unchecked")
 	public List<V> getIndex(String name, Object value) {
 		isReady();
-		readLock.lock();
+		Map<Object, List<V>> index = snapshot.indexs.get(name);
+		List<V> indexList;
+		if (index == null) {
+			// 只有一个属性值时的组合索引查询会匹配到该方法
+			indexList = findIndex(name, new Object[] { value });
+		} else {
+			indexList = index.get(value);
+		}
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.index(indexList != null);
+		}
+		if (indexList == null) {
+			return Collections.EMPTY_LIST;
+		}
+		return indexList;
+	}
+
+	/**
+	 * 重新加载静态资源
+	 * 
+	 * <pre>
+	 * 新数据在独立的快照中构建，构建完成后才替换当前快照，因此读取操作在重新加载期间不会被阻塞，
+	 * 也不会看到加载了一半的数据，替换完成后在重新加载锁之外通知观察者与变更监听器
+	 * </pre>
+	 */
+	public void reload() {
+		isReady();
+		Update<K, V> update = null;
+		lockReload();
 		try {
-			Map<Object, List<V>> index = indexs.get(name);
-			if (index == null) {
-				return Collections.EMPTY_LIST;
-			}
-			List<V> indexList = index.get(value);
-			if (indexList == null) {
-				return Collections.EMPTY_LIST;
-			}
-			ArrayList<V> result = new ArrayList<V>(indexList);
-			return result;
+			update = prepare();
+			update.commit();
 		} finally {
-			readLock.unlock();
+			unlockReload();
 		}
+		// 通知监听器
+		update.publish();
 	}
 
 	/**
-	 * 重新加载静态资源
+	 * 读取资源并构建新的快照，调用前必须通过{@link #lockReload()}持有重新加载锁
+	 * 
+	 * @return 尚未生效的新快照及其变更内容
 	 */
 	@SuppressWarnings("unchecked")
-	public void reload() {
+	Update<K, V> prepare() {
 		isReady();
-		writeLock.lock();
+		long start = System.nanoTime();
 		try {
 			InputStream input = null;
 			// 获取数据源
@@ -252,42 +361,13 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 			} else {
 				list = reader.read(input, getClz());
 			}
-			Iterator<V> it = list.iterator();
-			clear();
-			while (it.hasNext()) {
-				V obj = it.next();
-				// 注入 Spring 容器的内容
-				Set<InjectDefinition> injects = resourceDefinition.getInjects();
-				for (InjectDefinition inject : injects) {
-					Field field = inject.getField();
-					Object value = inject.getValue(applicationContext);
-					try {
-						field.set(obj, value);
-					} catch (Exception e) {
-						e.printStackTrace();
-					}
-				}
-
-				if (put(obj) != null) {
-					FormattingTuple message = MessageFormatter.format("[{}]资源[{}]的唯一标识重复", getClz(),
-							JsonUtils.object2String(obj));
-					logger.error(message.getMessage());
-					throw new IllegalStateException(message.getMessage());
-				}
-			}
-			// 对排序索引进行排序
-			for (Entry<String, Map<Object, List<V>>> entry : indexs.entrySet()) {
-				String key = entry.getKey();
-				IndexGetter getter = indexGetters.get(key);
-				if (getter.hasComparator()) {
-					for (List<V> values : entry.getValue().values()) {
-						Collections.sort(values, getter.getComparator());
-					}
-				}
+			// 构建快照
+			Update<K, V> result = build(list, snapshot);
+			StorageMetrics current = metrics;
+			if (current != null) {
+				current.reload(System.nanoTime() - start);
 			}
-			// 通知监听器
-			this.setChanged();
-			this.notifyObservers();
+			return result;
 		} catch (IOException e) {
 			FormattingTuple message = MessageFormatter.format("静态资源[{}]所对应的资源文件[{}]不存在", getClz().getName(),
 					getLocation());
@@ -297,9 +377,420 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 			FormattingTuple message = MessageFormatter.format("静态资源[{}]配置的索引内容排序器不正确", getClz().getName(), e);
 			logger.error(message.getMessage());
 			throw new IllegalStateException(message.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 获取重新加载锁，并记录等待的时间
+	 */
+	void lockReload() {
+		StorageMetrics current = metrics;
+		if (current == null) {
+			reloadLock.lock();
+			return;
+		}
+		long start = System.nanoTime();
+		reloadLock.lock();
+		current.reloadLockWaitNanos.add(System.nanoTime() - start);
+	}
+
+	/**
+	 * 释放重新加载锁
+	 */
+	void unlockReload() {
+		reloadLock.unlock();
+	}
+
+	/**
+	 * 添加存储空间变更监听器，监听器在执行重新加载的线程中被调用
+	 * 
+	 * @param listener
+	 *            监听器
+	 */
+	public void addListener(StorageListener<K, V> listener) {
+		addListener(listener, null);
+	}
+
+	/**
+	 * 添加存储空间变更监听器，监听器通过指定的执行器被调用，避免耗时的监听器延长重新加载的时间
+	 * 
+	 * @param listener
+	 *            监听器
+	 * @param executor
+	 *            执行器，为 null 时在执行重新加载的线程中调用
+	 */
+	public void addListener(StorageListener<K, V> listener, Executor executor) {
+		listeners.add(new ListenerEntry<K, V>(listener, executor));
+	}
+
+	/**
+	 * 移除存储空间变更监听器
+	 * 
+	 * @param listener
+	 *            监听器
+	 */
+	public void removeListener(StorageListener<K, V> listener) {
+		for (ListenerEntry<K, V> entry : listeners) {
+			if (entry.listener == listener) {
+				listeners.remove(entry);
+			}
+		}
+	}
+
+	/**
+	 * 获取存储空间的统计信息，不会触发延迟加载资源的加载
+	 * 
+	 * @return
+	 */
+	public StorageStats getStats() {
+		Snapshot<K, V> current = snapshot;
+		Map<String, Integer> indexSizes = new TreeMap<String, Integer>();
+		for (Entry<String, Map<Object, List<V>>> entry : current.indexs.entrySet()) {
+			indexSizes.put(entry.getKey(), entry.getValue().size());
+		}
+		for (Entry<String, Map<Object, V>> entry : current.uniques.entrySet()) {
+			indexSizes.put(entry.getKey(), entry.getValue().size());
+		}
+		for (Entry<String, CompositeTable<V>> entry : current.composites.entrySet()) {
+			indexSizes.put(entry.getKey(), entry.getValue().size());
+		}
+		for (Entry<String, RangeTable<V>> entry : current.ranges.entrySet()) {
+			indexSizes.put(entry.getKey(), entry.getValue().size());
+		}
+		return new StorageStats(getClz(), ready, current.values.getLayout(), current.values.size(), indexSizes,
+				metrics);
+	}
+
+	/**
+	 * 估算存储空间的内存占用，不会触发延迟加载资源的加载
+	 * 
+	 * <pre>
+	 * 需要遍历全部资源实例，开销与资源数量成正比，不应在频繁调用的逻辑中使用
+	 * </pre>
+	 * 
+	 * @return
+	 */
+	public StorageFootprint getFootprint() {
+		Snapshot<K, V> current = snapshot;
+		FootprintEstimator estimator = new FootprintEstimator();
+		long valuesBytes = estimator.measure(current.values) + estimator.measure(current.rows);
+		Map<String, Long> indexBytes = new TreeMap<String, Long>();
+		for (Entry<String, Map<Object, List<V>>> entry : current.indexs.entrySet()) {
+			addBytes(indexBytes, entry.getKey(), estimator.measure(entry.getValue()));
+		}
+		for (Entry<String, Map<Object, V>> entry : current.uniques.entrySet()) {
+			addBytes(indexBytes, entry.getKey(), estimator.measure(entry.getValue()));
+		}
+		for (Entry<String, CompositeTable<V>> entry : current.composites.entrySet()) {
+			addBytes(indexBytes, entry.getKey(), estimator.measure(entry.getValue()));
+		}
+		for (Entry<String, RangeTable<V>> entry : current.ranges.entrySet()) {
+			addBytes(indexBytes, entry.getKey(), estimator.measure(entry.getValue()));
+		}
+		for (Entry<String, Map<Object, RowBitmap>> entry : current.bitmaps.entrySet()) {
+			addBytes(indexBytes, entry.getKey(), estimator.measure(entry.getValue()));
+		}
+		long viewBytes = estimator.measure(current.views);
+		return new StorageFootprint(getClz(), ready, current.values.size(), valuesBytes, indexBytes, viewBytes,
+				estimator.getOffHeap());
+	}
+
+	private static void addBytes(Map<String, Long> result, String name, long bytes) {
+		Long prev = result.get(name);
+		result.put(name, prev == null ? bytes : prev + bytes);
+	}
+
+	/**
+	 * 设置是否开启运行时计数，关闭后已有的计数会被丢弃
+	 * 
+	 * @param enabled
+	 */
+	public void setMetricsEnabled(boolean enabled) {
+		if (!enabled) {
+			metrics = null;
+		} else if (metrics == null) {
+			metrics = new StorageMetrics();
+		}
+	}
+
+	/**
+	 * 获取指定的组合索引内容列表
+	 * 
+	 * @param name
+	 *            组合索引名
+	 * @param parts
+	 *            组合索引各属性的值，顺序与{@link CompositeIndex#fields()}一致
+	 * @return 不存在会返回{@link Collections#EMPTY_LIST}，返回的列表是只读的
+	 */
+	@SuppressWarnings("unchecked")
+	public List<V> getCompositeIndex(String name, Object... parts) {
+		isReady();
+		List<V> result = findIndex(name, parts);
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.index(result != null);
+		}
+		if (result == null) {
+			return Collections.EMPTY_LIST;
+		}
+		return result;
+	}
+
+	/**
+	 * 获取指定的唯一组合索引实例
+	 * 
+	 * @param name
+	 *            唯一组合索引名
+	 * @param parts
+	 *            组合索引各属性的值，顺序与{@link CompositeIndex#fields()}一致
+	 * @return 不存在会返回 null
+	 */
+	public V getCompositeUnique(String name, Object... parts) {
+		isReady();
+		V result = findUnique(name, parts);
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.unique(result != null);
+		}
+		return result;
+	}
+
+	/**
+	 * 获取区间索引值小于等于指定值的最大资源实例
+	 * 
+	 * <pre>
+	 * 适用于"不超过 X 的最大门槛"类的查询，如升级经验、排名奖励等，相同索引值时返回最后一个
+	 * </pre>
+	 * 
+	 * @param name
+	 *            区间索引名
+	 * @param value
+	 *            指定值
+	 * @return 不存在会返回 null
+	 */
+	public V floor(String name, long value) {
+		isReady();
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.rangeQueries.increment();
+		}
+		RangeTable<V> index = snapshot.ranges.get(name);
+		if (index == null) {
+			return null;
+		}
+		return index.floor(value);
+	}
+
+	/**
+	 * 获取区间索引值大于等于指定值的最小资源实例，相同索引值时返回第一个
+	 * 
+	 * @param name
+	 *            区间索引名
+	 * @param value
+	 *            指定值
+	 * @return 不存在会返回 null
+	 */
+	public V ceiling(String name, long value) {
+		isReady();
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.rangeQueries.increment();
+		}
+		RangeTable<V> index = snapshot.ranges.get(name);
+		if (index == null) {
+			return null;
+		}
+		return index.ceiling(value);
+	}
+
+	/**
+	 * 获取区间索引值在指定闭区间内的资源实例
+	 * 
+	 * @param name
+	 *            区间索引名
+	 * @param from
+	 *            区间起始值(包含)
+	 * @param to
+	 *            区间结束值(包含)
+	 * @return 按索引值升序排列，不存在会返回{@link Collections#EMPTY_LIST}，返回的列表是只读的
+	 */
+	@SuppressWarnings("unchecked")
+	public List<V> range(String name, long from, long to) {
+		isReady();
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.rangeQueries.increment();
+		}
+		RangeTable<V> index = snapshot.ranges.get(name);
+		if (index == null) {
+			return Collections.EMPTY_LIST;
+		}
+		return index.range(from, to);
+	}
+
+	/**
+	 * 创建位图索引的组合查询
+	 * 
+	 * <pre>
+	 * 返回的查询对象绑定当前快照，多个条件的组合通过按字进行的位运算完成，不需要对列表求交集
+	 * </pre>
+	 * 
+	 * @return
+	 */
+	public BitmapQuery<V> bitmapQuery() {
+		isReady();
+		Snapshot<K, V> current = snapshot;
+		return new BitmapQuery<V>(current.rows, current.bitmaps);
+	}
+
+	/**
+	 * 注册聚合视图
+	 * 
+	 * <pre>
+	 * 已加载的存储空间会立即使用当前快照计算视图内容，之后每次重新加载构建新快照时重新计算，
+	 * 延迟加载的存储空间在首次加载时计算
+	 * </pre>
+	 * 
+	 * @param name
+	 *            视图名，同一存储空间的视图名必须唯一
+	 * @param view
+	 *            聚合视图
+	 */
+	public void addView(String name, StorageView<V, ?> view) {
+		reloadLock.lock();
+		try {
+			if (views.putIfAbsent(name, view) != null) {
+				FormattingTuple message = MessageFormatter.format("[{}]资源的聚合视图[{}]重复", getClz().getName(), name);
+				logger.error(message.getMessage());
+				throw new IllegalStateException(message.getMessage());
+			}
+			if (!ready) {
+				return;
+			}
+			Snapshot<K, V> current = snapshot;
+			Map<String, Object> results = new HashMap<String, Object>(current.views);
+			results.put(name, compute(name, view, current.values.values()));
+			snapshot = current.withViews(Collections.unmodifiableMap(results));
 		} finally {
-			writeLock.unlock();
+			reloadLock.unlock();
+		}
+	}
+
+	/**
+	 * 移除聚合视图
+	 * 
+	 * @param name
+	 *            视图名
+	 */
+	public void removeView(String name) {
+		reloadLock.lock();
+		try {
+			if (views.remove(name) == null) {
+				return;
+			}
+			Snapshot<K, V> current = snapshot;
+			Map<String, Object> results = new HashMap<String, Object>(current.views);
+			results.remove(name);
+			snapshot = current.withViews(Collections.unmodifiableMap(results));
+		} finally {
+			reloadLock.unlock();
+		}
+	}
+
+	/**
+	 * 获取聚合视图的内容
+	 * 
+	 * @param name
+	 *            视图名
+	 * @return 视图不存在时返回 null
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> R getView(String name) {
+		isReady();
+		return (R) snapshot.views.get(name);
+	}
+
+	/**
+	 * 创建多条件查询
+	 * 
+	 * <pre>
+	 * 查询在执行时读取当前快照，查询对象不是线程安全的，不应在多个线程间共享
+	 * </pre>
+	 * 
+	 * @return
+	 */
+	public StorageQuery<V> query() {
+		isReady();
+		return new StorageQuery<V>(this);
+	}
+
+	/**
+	 * 获取当前快照作为查询的数据来源
+	 * 
+	 * @return
+	 */
+	StorageQuery.Source<V> source() {
+		isReady();
+		StorageMetrics current = metrics;
+		if (current != null) {
+			current.queries.increment();
+		}
+		return snapshot;
+	}
+
+	/**
+	 * 获取指定索引名组合的查询计划
+	 * 
+	 * @param names
+	 *            索引条件的索引名
+	 * @return
+	 */
+	StorageQuery.Plan getPlan(List<String> names) {
+		StorageQuery.Plan plan = plans.get(names);
+		if (plan != null) {
+			return plan;
+		}
+		plan = new StorageQuery.Plan(names, indexGetters);
+		StorageQuery.Plan prev = plans.putIfAbsent(new ArrayList<String>(names), plan);
+		return prev == null ? plan : prev;
+	}
+
+	/**
+	 * 查询组合索引内容
+	 * 
+	 * @param name
+	 *            组合索引名
+	 * @param parts
+	 *            组合索引各属性的值
+	 * @return 不存在时返回 null
+	 */
+	private List<V> findIndex(String name, Object[] parts) {
+		CompositeTable<V> index = snapshot.composites.get(name);
+		if (index == null) {
+			return null;
+		}
+		if (parts == null) {
+			// 以 null 作为唯一参数调用时参数数组为 null，视为单个 null 值
+			parts = new Object[] { null };
 		}
+		return index.get(parts);
+	}
+
+	/**
+	 * 查询唯一组合索引实例
+	 * 
+	 * @param name
+	 *            唯一组合索引名
+	 * @param parts
+	 *            组合索引各属性的值
+	 * @return 不存在时返回 null
+	 */
+	private V findUnique(String name, Object[] parts) {
+		List<V> result = findIndex(name, parts);
+		if (result == null) {
+			return null;
+		}
+		return result.get(0);
 	}
 
 	/**
@@ -328,34 +819,357 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 	 * @throws RuntimeException
 	 *             未初始化时抛出
 	 */
-	private void isReady() {
-		if (!isInitialized()) {
-			String message = "未初始化完成";
-			logger.error(message);
-			throw new RuntimeException(message);
+	void isReady() {
+		if (ready) {
+			return;
 		}
+		awaitReady();
 	}
 
 	/**
-	 * 清空全部存储空间
+	 * 等待初始化完成，延迟加载的存储空间在此进行初始化，并发的首次访问会等待同一次加载
+	 * 
+	 * @throws RuntimeException
+	 *             未初始化时抛出
 	 */
-	private void clear() {
-		values.clear();
-		indexs.clear();
-		uniques.clear();
+	private synchronized void awaitReady() {
+		if (ready || initializing == Thread.currentThread()) {
+			// 已完成或当前线程正在初始化
+			return;
+		}
+		if (lazyDefinition != null) {
+			initialize(lazyDefinition);
+			return;
+		}
+		String message = "未初始化完成";
+		logger.error(message);
+		throw new RuntimeException(message);
 	}
 
-	private V put(V value) {
-		// 唯一标识处理
-		@SuppressWarnings("unchecked")
+	/**
+	 * 使用读取到的资源实例构建新的快照
+	 * 
+	 * <pre>
+	 * 读取到的资源实例按唯一标识与当前快照比较，内容没有变化的沿用当前实例以保持对象身份，
+	 * 只由未变化实例组成的索引内容沿用当前的只读列表，全部内容都没有变化时直接沿用当前快照
+	 * </pre>
+	 * 
+	 * @param list
+	 *            资源实例
+	 * @param previous
+	 *            当前快照
+	 * @return 新的快照及其相对当前快照的变更内容
+	 */
+	private Update<K, V> build(List<V> list, Snapshot<K, V> previous) {
+		// 属性值去重(堆外存储的实例编码后即被丢弃，不需要去重)
+		if (codec == null && resourceDefinition.isDedup()) {
+			dedup(list);
+		}
+		// 与当前快照比较，内容未变化的资源实例沿用当前实例(堆外存储的实例是解码产生的，不参与比较)
+		ValueStore<K, V> current = codec == null ? previous.values : null;
+		Map<K, V> values = new HashMap<K, V>();
+		List<V> rows = new ArrayList<V>(list.size());
+		Set<K> added = new HashSet<K>();
+		Set<K> updated = new HashSet<K>();
+		for (V obj : list) {
+			K key = getKey(obj);
+			V prev = current == null ? null : current.get(key);
+			if (prev != null && DeepEquals.equals(prev, obj)) {
+				obj = prev;
+			} else {
+				// 注入 Spring 容器的内容
+				inject(obj);
+				if (previous.values.containsKey(key)) {
+					updated.add(key);
+				} else {
+					added.add(key);
+				}
+			}
+
+			if (values.put(key, obj) != null) {
+				FormattingTuple message = MessageFormatter.format("[{}]资源[{}]的唯一标识重复", getClz(),
+						JsonUtils.object2String(obj));
+				logger.error(message.getMessage());
+				throw new IllegalStateException(message.getMessage());
+			}
+			rows.add(obj);
+		}
+		Set<K> removed = new HashSet<K>();
+		if (values.size() - added.size() != previous.values.size()) {
+			for (V prev : previous.values.values()) {
+				K key = getKey(prev);
+				if (!values.containsKey(key)) {
+					removed.add(key);
+				}
+			}
+		}
+		StorageChange<K, V> change = new StorageChange<K, V>(this, added, updated, removed);
+		if (logger.isDebugEnabled()) {
+			FormattingTuple message = MessageFormatter.format("资源[{}]加载完成，新增[{}]修改[{}]删除[{}]", new Object[] {
+					getClz().getName(), added.size(), updated.size(), removed.size() });
+			logger.debug(message.getMessage());
+		}
+		if (current != null && change.isEmpty()) {
+			// 内容没有任何变化，沿用当前快照
+			return new Update<K, V>(previous, change);
+		}
+
+		Snapshot<K, V> next = new Snapshot<K, V>();
+		for (V obj : rows) {
+			index(next, obj);
+		}
+		// 唯一组合索引与唯一区间索引转为单元素的列表索引，与非唯一的同类索引统一处理
+		for (IndexGetter getter : indexGetters.values()) {
+			if (!getter.isUnique()) {
+				continue;
+			}
+			if (!(getter instanceof CompositeIndexGetter) && getter.getType() != IndexType.RANGE) {
+				continue;
+			}
+			Map<Object, V> index = next.uniques.remove(getter.getName());
+			if (index == null) {
+				continue;
+			}
+			for (Entry<Object, V> entry : index.entrySet()) {
+				next.loadListIndex(getter.getName(), entry.getKey()).add(entry.getValue());
+			}
+		}
+		// 对排序索引进行排序
+		for (Entry<String, Map<Object, List<V>>> entry : next.indexs.entrySet()) {
+			String key = entry.getKey();
+			IndexGetter getter = indexGetters.get(key);
+			if (getter.hasComparator()) {
+				@SuppressWarnings("unchecked")
+				Comparator<V> comparator = getter.getComparator();
+				for (List<V> content : entry.getValue().values()) {
+					Collections.sort(content, comparator);
+				}
+			}
+		}
+		// 构建区间索引
+		for (IndexGetter getter : indexGetters.values()) {
+			if (getter.getType() != IndexType.RANGE) {
+				continue;
+			}
+			Map<Object, List<V>> index = next.indexs.remove(getter.getName());
+			if (index == null) {
+				index = Collections.emptyMap();
+			}
+			if (index.containsKey(null)) {
+				FormattingTuple message = MessageFormatter.format("[{}]资源的区间索引[{}]存在值为 null 的配置项", getClz()
+						.getName(), getter.getName());
+				logger.error(message.getMessage());
+				throw new RuntimeException(message.getMessage());
+			}
+			next.ranges.put(getter.getName(), RangeTable.valueOf(index));
+		}
+		// 构建位图索引
+		for (IndexGetter getter : indexGetters.values()) {
+			if (getter.getType() != IndexType.BITMAP) {
+				continue;
+			}
+			Map<Object, RowBitmap.Builder> builders = new HashMap<Object, RowBitmap.Builder>();
+			for (int i = 0; i < rows.size(); i++) {
+				Object key = getter.getValue(rows.get(i));
+				RowBitmap.Builder builder = builders.get(key);
+				if (builder == null) {
+					builder = new RowBitmap.Builder();
+					builders.put(key, builder);
+				}
+				builder.add(i);
+			}
+			Map<Object, RowBitmap> index = new HashMap<Object, RowBitmap>(builders.size());
+			for (Entry<Object, RowBitmap.Builder> entry : builders.entrySet()) {
+				index.put(entry.getKey(), entry.getValue().build());
+			}
+			next.bitmaps.put(getter.getName(), index);
+		}
+		if (!next.bitmaps.isEmpty()) {
+			next.rows = rows;
+		}
+		// 构建主存储结构并将索引内容转为只读结构
+		if (codec != null) {
+			toOffHeap(next, values);
+		} else {
+			next.values = ValueStoreBuilder.create(identifier.getIdType(), values);
+			for (Entry<String, Map<Object, List<V>>> index : next.indexs.entrySet()) {
+				Map<Object, List<V>> prevIndex = previous.indexs.get(index.getKey());
+				for (Entry<Object, List<V>> bucket : index.getValue().entrySet()) {
+					List<V> prevBucket = prevIndex == null ? null : prevIndex.get(bucket.getKey());
+					if (isSame(prevBucket, bucket.getValue())) {
+						// 内容未变化的索引沿用当前的只读列表
+						bucket.setValue(prevBucket);
+					} else {
+						bucket.setValue(freeze(bucket.getValue()));
+					}
+				}
+			}
+			for (Entry<String, RangeTable<V>> entry : next.ranges.entrySet()) {
+				RangeTable<V> range = entry.getValue();
+				entry.setValue(range.replaceRows(freeze(range.getRows())));
+			}
+			if (!next.rows.isEmpty()) {
+				next.rows = freeze(next.rows);
+			}
+		}
+		// 构建组合索引
+		for (IndexGetter getter : indexGetters.values()) {
+			if (!(getter instanceof CompositeIndexGetter)) {
+				continue;
+			}
+			Map<Object, List<V>> index = next.indexs.remove(getter.getName());
+			if (index != null) {
+				next.composites.put(getter.getName(), new CompositeTable<V>(index));
+			}
+		}
+		// 计算聚合视图
+		if (!views.isEmpty()) {
+			Map<String, Object> results = new HashMap<String, Object>(views.size());
+			for (Entry<String, StorageView<V, ?>> entry : views.entrySet()) {
+				results.put(entry.getKey(), compute(entry.getKey(), entry.getValue(), next.values.values()));
+			}
+			next.views = Collections.unmodifiableMap(results);
+		}
+		return new Update<K, V>(next, change);
+	}
+
+	/**
+	 * 对读取到的资源实例的属性值去重
+	 * 
+	 * @param list
+	 *            资源实例
+	 */
+	private void dedup(List<V> list) {
+		Deduplicator deduplicator = new Deduplicator();
+		for (V obj : list) {
+			deduplicator.dedup(obj);
+		}
+		if (logger.isDebugEnabled()) {
+			FormattingTuple message = MessageFormatter.format("资源[{}]属性值去重完成，共享[{}]个属性值，不同的属性值[{}]个", new Object[] {
+					getClz().getName(), deduplicator.getShared(), deduplicator.getDistinct() });
+			logger.debug(message.getMessage());
+		}
+	}
+
+	/**
+	 * 计算聚合视图的内容
+	 * 
+	 * @param name
+	 *            视图名
+	 * @param view
+	 *            聚合视图
+	 * @param values
+	 *            全部资源实例
+	 * @return
+	 */
+	private Object compute(String name, StorageView<V, ?> view, Collection<V> values) {
+		try {
+			return view.compute(Collections.unmodifiableCollection(values));
+		} catch (RuntimeException e) {
+			FormattingTuple message = MessageFormatter.format("[{}]资源的聚合视图[{}]计算失败", getClz().getName(), name);
+			logger.error(message.getMessage(), e);
+			throw new IllegalStateException(message.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 资源不存在时的异常处理
+	 * 
+	 * @param key
+	 *            键
+	 */
+	private void notFound(Object key) {
+		FormattingTuple message = MessageFormatter.format("标识为[{}]的静态资源[{}]不存在", key, getClz().getName());
+		logger.error(message.getMessage());
+		throw new IllegalStateException(message.getMessage());
+	}
+
+	/**
+	 * 通知存储空间的观察者与变更监听器
+	 * 
+	 * <pre>
+	 * {@link java.util.Observer}每次重新加载后都会收到通知，参数为本次的变更内容，
+	 * {@link StorageListener}只在有资源实例新增、修改或删除时收到通知
+	 * </pre>
+	 * 
+	 * @param change
+	 *            变更内容
+	 */
+	private void fireChange(final StorageChange<K, V> change) {
+		this.setChanged();
+		this.notifyObservers(change);
+		if (change.isEmpty()) {
+			return;
+		}
+		for (ListenerEntry<K, V> entry : listeners) {
+			final StorageListener<K, V> listener = entry.listener;
+			if (entry.executor == null) {
+				listener.onChange(change);
+				continue;
+			}
+			entry.executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						listener.onChange(change);
+					} catch (RuntimeException e) {
+						FormattingTuple message = MessageFormatter.format("静态资源[{}]的变更监听器[{}]执行异常", getClz()
+								.getName(), listener);
+						logger.error(message.getMessage(), e);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * 获取资源实例的唯一标识
+	 * 
+	 * @param value
+	 *            资源实例
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private K getKey(V value) {
 		K key = (K) identifier.getValue(value);
 		if (key == null) {
 			FormattingTuple message = MessageFormatter.format("静态资源[{}]存在标识属性为null的配置项", getClz().getName());
 			logger.error(message.getMessage());
 			throw new RuntimeException(message.getMessage());
 		}
-		V result = values.put(key, value);
+		return key;
+	}
+
+	/**
+	 * 检查两个索引内容是否由相同顺序的相同实例组成
+	 * 
+	 * @param prev
+	 *            当前快照的索引内容
+	 * @param content
+	 *            正在构建的索引内容
+	 * @return
+	 */
+	private boolean isSame(List<V> prev, List<V> content) {
+		if (prev == null || prev.size() != content.size()) {
+			return false;
+		}
+		for (int i = 0; i < content.size(); i++) {
+			if (prev.get(i) != content.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
 
+	/**
+	 * 将资源实例放入正在构建的快照的索引
+	 * 
+	 * @param target
+	 *            正在构建的快照
+	 * @param value
+	 *            资源实例
+	 */
+	private void index(Snapshot<K, V> target, V value) {
 		// 索引处理
 		for (IndexGetter getter : indexGetters.values()) {
 			String name = getter.getName();
@@ -367,7 +1181,7 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 			 */
 			// 索引内容存储
 			if (getter.isUnique()) {
-				Map<Object, V> index = loadUniqueIndex(name);
+				Map<Object, V> index = target.loadUniqueIndex(name);
 				if (index.put(indexKey, value) != null) {
 					FormattingTuple message = MessageFormatter.format("[{}]资源的唯一索引[{}]的值[{}]重复",
 							new Object[] { getClz().getName(), name, indexKey });
@@ -375,48 +1189,276 @@ public class Storage<K, V> extends Observable implements ApplicationContextAware
 					throw new RuntimeException(message.getMessage());
 				}
 			} else {
-				List<V> index = loadListIndex(name, indexKey);
+				List<V> index = target.loadListIndex(name, indexKey);
 				index.add(value);
 			}
 		}
+	}
 
-		return result;
+	/**
+	 * 将正在构建的快照转为堆外存储
+	 * 
+	 * <pre>
+	 * 资源实例编码到堆外内存后，索引与唯一索引只保留行序号，获取时再经主存储结构解码
+	 * </pre>
+	 * 
+	 * @param target
+	 *            正在构建的快照
+	 * @param values
+	 *            正在构建的主存储内容
+	 */
+	private void toOffHeap(Snapshot<K, V> target, Map<K, V> values) {
+		RowInitializer<V> initializer = new RowInitializer<V>() {
+			@Override
+			public void initialize(V value) {
+				inject(value);
+			}
+		};
+		OffHeapValueStore<K, V> store = new OffHeapValueStore<K, V>(identifier.getIdType(), identifier, codec,
+				initializer, resourceDefinition.getDecodeCache(), values.values());
+		Map<V, Integer> ordinals = new IdentityHashMap<V, Integer>(values.size());
+		for (V value : values.values()) {
+			ordinals.put(value, ordinals.size());
+		}
+		for (Map<Object, List<V>> index : target.indexs.values()) {
+			for (Entry<Object, List<V>> bucket : index.entrySet()) {
+				bucket.setValue(store.view(toOrdinals(ordinals, bucket.getValue())));
+			}
+		}
+		for (Entry<String, RangeTable<V>> entry : target.ranges.entrySet()) {
+			RangeTable<V> range = entry.getValue();
+			entry.setValue(range.replaceRows(store.view(toOrdinals(ordinals, range.getRows()))));
+		}
+		if (!target.rows.isEmpty()) {
+			target.rows = store.view(toOrdinals(ordinals, target.rows));
+		}
+		for (Entry<String, Map<Object, V>> entry : target.uniques.entrySet()) {
+			Map<Object, Integer> rows = new HashMap<Object, Integer>(entry.getValue().size());
+			for (Entry<Object, V> unique : entry.getValue().entrySet()) {
+				rows.put(unique.getKey(), ordinals.get(unique.getValue()));
+			}
+			entry.setValue(store.view(rows));
+		}
+		target.values = store;
 	}
 
-	private List<V> loadListIndex(String name, Object key) {
-		Map<Object, List<V>> index = loadListIndex(name);
-		if (index.containsKey(key)) {
-			return index.get(key);
+	/**
+	 * 获取资源实例对应的堆外存储行序号
+	 * 
+	 * @param ordinals
+	 *            资源实例与行序号的对应关系
+	 * @param content
+	 *            资源实例
+	 * @return
+	 */
+	private int[] toOrdinals(Map<V, Integer> ordinals, List<V> content) {
+		int[] rows = new int[content.size()];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = ordinals.get(content.get(i));
 		}
+		return rows;
+	}
 
-		List<V> result = new ArrayList<V>();
-		index.put(key, result);
-		return result;
+	/**
+	 * 注入 Spring 容器的内容
+	 * 
+	 * @param obj
+	 *            资源实例
+	 */
+	private void inject(V obj) {
+		Set<InjectDefinition> injects = resourceDefinition.getInjects();
+		for (InjectDefinition inject : injects) {
+			Object value = inject.getValue(applicationContext);
+			try {
+				inject.getSetter().setValue(obj, value);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
 	}
 
-	private Map<Object, List<V>> loadListIndex(String name) {
-		if (indexs.containsKey(name)) {
-			return indexs.get(name);
+	/**
+	 * 将构建完成的索引内容转为只读列表
+	 * 
+	 * <pre>
+	 * 返回的列表直接以数组为底层存储并支持随机访问，{@link #getIndex(String, Object)}
+	 * 可以直接返回它而不必每次复制
+	 * </pre>
+	 * 
+	 * @param values
+	 *            索引内容
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private List<V> freeze(List<V> values) {
+		V[] array = (V[]) values.toArray();
+		return Collections.unmodifiableList(Arrays.asList(array));
+	}
+
+	/**
+	 * 重新加载构建的快照及其变更内容
+	 * 
+	 * <pre>
+	 * 构建与生效分为两步，多个存储空间可以先全部构建完成再一起生效
+	 * </pre>
+	 * 
+	 * @author frank
+	 */
+	static class Update<K, V> {
+
+		private final Snapshot<K, V> snapshot;
+		private final StorageChange<K, V> change;
+
+		private Update(Snapshot<K, V> snapshot, StorageChange<K, V> change) {
+			this.snapshot = snapshot;
+			this.change = change;
 		}
 
-		Map<Object, List<V>> result = new HashMap<Object, List<V>>();
-		indexs.put(name, result);
-		return result;
+		/** 使新快照生效，调用前必须持有存储空间的重新加载锁 */
+		void commit() {
+			change.getStorage().snapshot = snapshot;
+		}
+
+		/** 通知观察者与变更监听器 */
+		void publish() {
+			change.getStorage().fireChange(change);
+		}
+
+		public StorageChange<K, V> getChange() {
+			return change;
+		}
 	}
 
-	private Map<Object, V> loadUniqueIndex(String name) {
-		if (uniques.containsKey(name)) {
-			return uniques.get(name);
+	/**
+	 * 变更监听器注册信息
+	 * 
+	 * @author frank
+	 */
+	private static class ListenerEntry<K, V> {
+
+		private final StorageListener<K, V> listener;
+		private final Executor executor;
+
+		public ListenerEntry(StorageListener<K, V> listener, Executor executor) {
+			this.listener = listener;
+			this.executor = executor;
 		}
+	}
 
-		Map<Object, V> result = new HashMap<Object, V>();
-		uniques.put(name, result);
-		return result;
+	/**
+	 * 存储空间数据快照
+	 * 
+	 * <pre>
+	 * 快照只在{@link Storage#reload()}中构建，发布之后不再修改(注册或移除聚合视图时发布替换了视图内容的副本)，
+	 * 因此可以通过 volatile 引用安全地被任意线程无锁读取
+	 * </pre>
+	 * 
+	 * @author frank
+	 */
+	private static class Snapshot<K, V> implements StorageQuery.Source<V> {
+
+		/** 主存储空间 */
+		private ValueStore<K, V> values = ValueStoreBuilder.create(IdType.OBJECT, new HashMap<K, V>());
+		/** 索引存储空间 */
+		private final Map<String, Map<Object, List<V>>> indexs = new HashMap<String, Map<Object, List<V>>>();
+		/** 唯一值存储空间 */
+		private final Map<String, Map<Object, V>> uniques = new HashMap<String, Map<Object, V>>();
+		/** 组合索引存储空间 */
+		private final Map<String, CompositeTable<V>> composites = new HashMap<String, CompositeTable<V>>();
+		/** 区间索引存储空间 */
+		private final Map<String, RangeTable<V>> ranges = new HashMap<String, RangeTable<V>>();
+		/** 按加载顺序排列的资源实例(只在存在位图索引时保存)，位图索引的行序号即为其中的下标 */
+		@SuppressWarnings("unchecked")
+		private List<V> rows = Collections.EMPTY_LIST;
+		/** 位图索引存储空间 */
+		private final Map<String, Map<Object, RowBitmap>> bitmaps = new HashMap<String, Map<Object, RowBitmap>>();
+		/** 聚合视图内容 */
+		private Map<String, Object> views = Collections.emptyMap();
+
+		@Override
+		public Collection<V> all() {
+			return values.values();
+		}
+
+		@Override
+		public List<V> index(String name, Object value) {
+			Map<Object, List<V>> index = indexs.get(name);
+			return index == null ? null : index.get(value);
+		}
+
+		@Override
+		public V unique(String name, Object value) {
+			Map<Object, V> index = uniques.get(name);
+			return index == null ? null : index.get(value);
+		}
+
+		@Override
+		public List<V> composite(String name, Object[] parts) {
+			CompositeTable<V> index = composites.get(name);
+			return index == null ? null : index.get(parts);
+		}
+
+		@Override
+		public RangeTable<V> range(String name) {
+			return ranges.get(name);
+		}
+
+		private List<V> loadListIndex(String name, Object key) {
+			Map<Object, List<V>> index = loadListIndex(name);
+			if (index.containsKey(key)) {
+				return index.get(key);
+			}
+
+			List<V> result = new ArrayList<V>();
+			index.put(key, result);
+			return result;
+		}
+
+		private Map<Object, List<V>> loadListIndex(String name) {
+			if (indexs.containsKey(name)) {
+				return indexs.get(name);
+			}
+
+			Map<Object, List<V>> result = new HashMap<Object, List<V>>();
+			indexs.put(name, result);
+			return result;
+		}
+
+		/**
+		 * 创建替换聚合视图内容后的副本，其他内容与当前快照共享
+		 * 
+		 * @param views
+		 *            聚合视图内容
+		 * @return
+		 */
+		private Snapshot<K, V> withViews(Map<String, Object> views) {
+			Snapshot<K, V> result = new Snapshot<K, V>();
+			result.values = values;
+			result.indexs.putAll(indexs);
+			result.uniques.putAll(uniques);
+			result.composites.putAll(composites);
+			result.ranges.putAll(ranges);
+			result.rows = rows;
+			result.bitmaps.putAll(bitmaps);
+			result.views = views;
+			return result;
+		}
+
+		private Map<Object, V> loadUniqueIndex(String name) {
+			if (uniques.containsKey(name)) {
+				return uniques.get(name);
+			}
+
+			Map<Object, V> result = new HashMap<Object, V>();
+			uniques.put(name, result);
+			return result;
+		}
 	}
 
 	@SuppressWarnings("unchecked")
 	public Class<V> getClz() {
-		return (Class<V>) resourceDefinition.getClz();
+		ResourceDefinition definition = resourceDefinition != null ? resourceDefinition : lazyDefinition;
+		return (Class<V>) definition.getClz();
 	}
 
 	// 实现Spring的接口
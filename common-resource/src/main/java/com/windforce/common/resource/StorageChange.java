@@ -0,0 +1,78 @@
+package com.windforce.common.resource;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 存储空间的一次变更内容
+ * 
+ * <pre>
+ * 记录一次重新加载中新增、修改和删除的资源唯一标识，
+ * 内容没有变化(沿用原实例)的资源不会出现在任何集合中
+ * </pre>
+ * 
+ * @author frank
+ */
+public class StorageChange<K, V> {
+
+	/** 发生变更的存储空间 */
+	private final Storage<K, V> storage;
+	/** 新增的资源唯一标识 */
+	private final Set<K> added;
+	/** 修改的资源唯一标识 */
+	private final Set<K> updated;
+	/** 删除的资源唯一标识 */
+	private final Set<K> removed;
+
+	StorageChange(Storage<K, V> storage, Set<K> added, Set<K> updated, Set<K> removed) {
+		this.storage = storage;
+		this.added = Collections.unmodifiableSet(added);
+		this.updated = Collections.unmodifiableSet(updated);
+		this.removed = Collections.unmodifiableSet(removed);
+	}
+
+	/**
+	 * 检查指定的资源唯一标识是否发生了变更(新增、修改或删除)
+	 * 
+	 * @param key
+	 *            资源唯一标识
+	 * @return
+	 */
+	public boolean isChanged(K key) {
+		return added.contains(key) || updated.contains(key) || removed.contains(key);
+	}
+
+	/**
+	 * 检查本次变更是否没有任何内容
+	 * 
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+	}
+
+	// Getter and Setter ...
+
+	public Storage<K, V> getStorage() {
+		return storage;
+	}
+
+	public Set<K> getAdded() {
+		return added;
+	}
+
+	public Set<K> getUpdated() {
+		return updated;
+	}
+
+	public Set<K> getRemoved() {
+		return removed;
+	}
+
+	@Override
+	public String toString() {
+		return "StorageChange[" + storage.getClz().getName() + ", added=" + added.size() + ", updated="
+				+ updated.size() + ", removed=" + removed.size() + "]";
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.windforce.common.resource;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.lang.builder.ReflectionToStringBuilder;
+
+/**
+ * 存储空间内存占用估算结果
+ * 
+ * <pre>
+ * 按主存储空间、各索引、聚合视图的顺序估算，被多处引用的对象只计入第一次出现的位置：
+ * 资源实例及其属性值计入主存储空间，索引只计入其自身的结构(以及只被索引引用的索引值)
+ * 估算结果为近似值，详见{@link FootprintEstimator}
+ * </pre>
+ * 
+ * @author frank
+ */
+public class StorageFootprint {
+
+	/** 资源类 */
+	private final Class<?> clz;
+	/** 是否已完成加载(延迟加载的资源在首次访问前为 false) */
+	private final boolean loaded;
+	/** 资源实例数量 */
+	private final int size;
+	/** 主存储空间(包含资源实例)的堆内存字节数 */
+	private final long valuesBytes;
+	/** 各索引的堆内存字节数 */
+	private final Map<String, Long> indexBytes;
+	/** 聚合视图的堆内存字节数 */
+	private final long viewBytes;
+	/** 堆外内存字节数 */
+	private final long offHeapBytes;
+
+	StorageFootprint(Class<?> clz, boolean loaded, int size, long valuesBytes, Map<String, Long> indexBytes,
+			long viewBytes, long offHeapBytes) {
+		this.clz = clz;
+		this.loaded = loaded;
+		this.size = size;
+		this.valuesBytes = valuesBytes;
+		this.indexBytes = Collections.unmodifiableMap(indexBytes);
+		this.viewBytes = viewBytes;
+		this.offHeapBytes = offHeapBytes;
+	}
+
+	/**
+	 * 获取堆内存字节数合计
+	 * 
+	 * @return
+	 */
+	public long getTotalBytes() {
+		long result = valuesBytes + viewBytes;
+		for (Long bytes : indexBytes.values()) {
+			result += bytes;
+		}
+		return result;
+	}
+
+	// Getter and Setter ...
+
+	public Class<?> getClz() {
+		return clz;
+	}
+
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public long getValuesBytes() {
+		return valuesBytes;
+	}
+
+	public Map<String, Long> getIndexBytes() {
+		return indexBytes;
+	}
+
+	public long getViewBytes() {
+		return viewBytes;
+	}
+
+	public long getOffHeapBytes() {
+		return offHeapBytes;
+	}
+
+	@Override
+	public String toString() {
+		return ReflectionToStringBuilder.toString(this);
+	}
+
+}
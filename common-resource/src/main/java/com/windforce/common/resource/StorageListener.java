@@ -0,0 +1,23 @@
+package com.windforce.common.resource;
+
+/**
+ * 存储空间变更监听器
+ * 
+ * <pre>
+ * 通过{@link Storage#addListener(StorageListener)}注册，每次重新加载后如果有资源实例新增、修改或删除，
+ * 会收到本次加载的变更内容，监听器可以只处理与自己相关的唯一标识
+ * </pre>
+ * 
+ * @author frank
+ */
+public interface StorageListener<K, V> {
+
+	/**
+	 * 存储空间内容发生变更
+	 * 
+	 * @param change
+	 *            变更内容
+	 */
+	void onChange(StorageChange<K, V> change);
+
+}
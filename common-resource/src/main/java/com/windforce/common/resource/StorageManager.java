@@ -4,9 +4,16 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +41,10 @@ public class StorageManager implements ApplicationContextAware {
 	private ConcurrentHashMap<Class, ResourceDefinition> definitions = new ConcurrentHashMap<Class, ResourceDefinition>();
 	/** 资源存储空间 */
 	private ConcurrentHashMap<Class<?>, Storage<?, ?>> storages = new ConcurrentHashMap<Class<?>, Storage<?, ?>>();
+	/** 是否开启存储空间的运行时计数 */
+	private volatile boolean metricsEnabled = true;
+	/** 后台加载执行器 */
+	private volatile Executor loader;
 	/** 缓存文件 */
 	private static ConcurrentHashMap<String, InputStream> caches = new ConcurrentHashMap<String, InputStream>();
 
@@ -72,6 +83,116 @@ public class StorageManager implements ApplicationContextAware {
 		storage.reload();
 	}
 
+	/**
+	 * 在后台线程中重新加载静态类资源
+	 * 
+	 * <pre>
+	 * 全部资源在加载执行器中读取并构建完成后才一起生效，任意一个资源加载失败时全部资源保持原有内容，
+	 * 加载期间读取操作继续使用原有内容而不会被阻塞
+	 * 生效后的观察者与变更监听器执行异常只记录日志，不会使结果异常完成
+	 * </pre>
+	 * 
+	 * @param clzs
+	 *            要重新加载的类资源
+	 * @return 完成时的结果为各资源的变更内容
+	 */
+	public CompletableFuture<List<StorageChange<?, ?>>> reloadAsync(Class<?>... clzs) {
+		final List<Storage<?, ?>> targets = new ArrayList<Storage<?, ?>>(clzs.length);
+		for (Class<?> clz : clzs) {
+			if (!definitions.containsKey(clz)) {
+				FormattingTuple message = MessageFormatter.format("类[{}]的资源定义不存在", clz);
+				logger.error(message.getMessage());
+				throw new RuntimeException(message.getMessage());
+			}
+			Storage<?, ?> storage = getStorage(clz);
+			if (!targets.contains(storage)) {
+				targets.add(storage);
+			}
+		}
+		// 按固定顺序获取重新加载锁，避免并发的批量加载之间出现死锁
+		Collections.sort(targets, new Comparator<Storage<?, ?>>() {
+			@Override
+			public int compare(Storage<?, ?> o1, Storage<?, ?> o2) {
+				return o1.getClz().getName().compareTo(o2.getClz().getName());
+			}
+		});
+		return CompletableFuture.supplyAsync(new Supplier<List<StorageChange<?, ?>>>() {
+			@Override
+			public List<StorageChange<?, ?>> get() {
+				return reload(targets);
+			}
+		}, getLoader());
+	}
+
+	/**
+	 * 重新加载多个存储空间，全部构建完成后才一起生效
+	 * 
+	 * @param targets
+	 *            已排序的存储空间
+	 * @return 各存储空间的变更内容
+	 */
+	private List<StorageChange<?, ?>> reload(List<Storage<?, ?>> targets) {
+		List<Storage.Update<?, ?>> updates = new ArrayList<Storage.Update<?, ?>>(targets.size());
+		List<Storage<?, ?>> locked = new ArrayList<Storage<?, ?>>(targets.size());
+		// 尚未加载的延迟加载资源先完成首次加载
+		for (Storage<?, ?> storage : targets) {
+			storage.isReady();
+		}
+		try {
+			for (Storage<?, ?> storage : targets) {
+				storage.lockReload();
+				locked.add(storage);
+				updates.add(storage.prepare());
+			}
+			for (Storage.Update<?, ?> update : updates) {
+				update.commit();
+			}
+		} finally {
+			for (Storage<?, ?> storage : locked) {
+				storage.unlockReload();
+			}
+		}
+
+		// 新内容已经全部生效，通知失败只记录日志，不影响其余资源的通知与加载结果
+		List<StorageChange<?, ?>> result = new ArrayList<StorageChange<?, ?>>(updates.size());
+		for (Storage.Update<?, ?> update : updates) {
+			try {
+				update.publish();
+			} catch (RuntimeException e) {
+				FormattingTuple message = MessageFormatter.format("资源[{}]已重新加载，但变更通知执行异常", update.getChange()
+						.getStorage().getClz().getName());
+				logger.error(message.getMessage(), e);
+			}
+			result.add(update.getChange());
+		}
+		return result;
+	}
+
+	/**
+	 * 获取后台加载执行器，未配置时创建单线程的守护线程执行器
+	 * 
+	 * @return
+	 */
+	private Executor getLoader() {
+		Executor result = loader;
+		if (result != null) {
+			return result;
+		}
+		synchronized (this) {
+			if (loader == null) {
+				loader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "storage-loader");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+			}
+			return loader;
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	public <T> T getResource(Object key, Class<T> clz) {
 		Storage storage = getStorage(clz);
@@ -105,6 +226,56 @@ public class StorageManager implements ApplicationContextAware {
 		return storages.toArray(new Storage[0]);
 	}
 
+	/**
+	 * 获取全部存储空间的统计信息，不会触发延迟加载资源的加载
+	 * 
+	 * @return 按资源类名排序的统计信息
+	 */
+	public List<StorageStats> stats() {
+		List<StorageStats> result = new ArrayList<StorageStats>(storages.size());
+		for (Storage<?, ?> storage : storages.values()) {
+			result.add(storage.getStats());
+		}
+		Collections.sort(result, new Comparator<StorageStats>() {
+			@Override
+			public int compare(StorageStats o1, StorageStats o2) {
+				return o1.getClz().getName().compareTo(o2.getClz().getName());
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 估算全部存储空间的内存占用，不会触发延迟加载资源的加载
+	 * 
+	 * @return 按资源类名排序的估算结果
+	 */
+	public List<StorageFootprint> footprint() {
+		List<StorageFootprint> result = new ArrayList<StorageFootprint>(storages.size());
+		for (Storage<?, ?> storage : storages.values()) {
+			result.add(storage.getFootprint());
+		}
+		Collections.sort(result, new Comparator<StorageFootprint>() {
+			@Override
+			public int compare(StorageFootprint o1, StorageFootprint o2) {
+				return o1.getClz().getName().compareTo(o2.getClz().getName());
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 设置是否开启全部存储空间的运行时计数，关闭后已有的计数会被丢弃
+	 * 
+	 * @param enabled
+	 */
+	public void setMetricsEnabled(boolean enabled) {
+		this.metricsEnabled = enabled;
+		for (Storage<?, ?> storage : storages.values()) {
+			storage.setMetricsEnabled(enabled);
+		}
+	}
+
 	/**
 	 * 初始化类资源的存储空间
 	 * 
@@ -121,12 +292,19 @@ public class StorageManager implements ApplicationContextAware {
 		}
 		AutowireCapableBeanFactory beanFactory = this.applicationContext.getAutowireCapableBeanFactory();
 		Storage storage = beanFactory.createBean(Storage.class);
+		storage.setMetricsEnabled(metricsEnabled);
 
 		Storage prev = storages.putIfAbsent(clz, storage);
-		if (prev == null) {
+		if (prev != null) {
+			return prev;
+		}
+		if (definition.isLazy()) {
+			// 延迟加载的资源在首次访问时由存储空间自行初始化
+			storage.defer(definition);
+		} else {
 			storage.initialize(definition);
 		}
-		return prev == null ? storage : prev;
+		return storage;
 	}
 
 	public void writeJson(String path) throws Exception {
@@ -175,6 +353,10 @@ public class StorageManager implements ApplicationContextAware {
 		this.applicationContext = applicationContext;
 	}
 
+	public void setLoader(Executor loader) {
+		this.loader = loader;
+	}
+
 	public static void putCache(String key, InputStream inputStream) {
 		caches.put(key, inputStream);
 	}
@@ -1,6 +1,7 @@
 package com.windforce.common.resource;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
@@ -35,12 +36,19 @@ public class StorageManagerFactory implements FactoryBean<StorageManager>, Appli
 	public StorageManager getObject() throws Exception {
 		StorageManager result = this.applicationContext.getAutowireCapableBeanFactory()
 				.createBean(StorageManager.class);
-		ExecutorService service = Executors.newFixedThreadPool(definitions.size());
+		// 延迟加载的资源不在启动时读取
+		List<ResourceDefinition> eagers = new ArrayList<ResourceDefinition>(definitions.size());
+		for (ResourceDefinition definition : definitions) {
+			if (!definition.isLazy()) {
+				eagers.add(definition);
+			}
+		}
+		ExecutorService service = Executors.newFixedThreadPool(Math.max(eagers.size(), 1));
 		CompletionService<ResourceDefinition> completionService = new ExecutorCompletionService<ResourceDefinition>(
 				service);
 		ReaderHolder readerHolder = applicationContext.getBean(ReaderHolder.class);
 
-		for (ResourceDefinition definition : definitions) {
+		for (ResourceDefinition definition : eagers) {
 			completionService.submit(new Callable<ResourceDefinition>() {
 				public ResourceDefinition call() throws Exception {
 					ResourceReader reader = readerHolder.getReader(definition.getFormat());
@@ -53,7 +61,7 @@ public class StorageManagerFactory implements FactoryBean<StorageManager>, Appli
 			});
 		}
 
-		for (int i = 0; i < definitions.size(); i++) {
+		for (int i = 0; i < eagers.size(); i++) {
 			completionService.take();
 		}
 		service.shutdown();
@@ -0,0 +1,92 @@
+package com.windforce.common.resource;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 存储空间运行时计数器
+ * 
+ * <pre>
+ * 计数器使用分段的{@link LongAdder}，多个线程并发查询时不会争用同一个缓存行
+ * </pre>
+ * 
+ * @author frank
+ */
+class StorageMetrics {
+
+	/** 按标识查询次数 */
+	final LongAdder gets = new LongAdder();
+	/** 按标识查询未命中次数 */
+	final LongAdder getMisses = new LongAdder();
+	/** 索引查询次数 */
+	final LongAdder indexQueries = new LongAdder();
+	/** 索引查询未命中次数 */
+	final LongAdder indexMisses = new LongAdder();
+	/** 唯一索引查询次数 */
+	final LongAdder uniqueQueries = new LongAdder();
+	/** 唯一索引查询未命中次数 */
+	final LongAdder uniqueMisses = new LongAdder();
+	/** 区间索引查询次数 */
+	final LongAdder rangeQueries = new LongAdder();
+	/** 多条件查询次数 */
+	final LongAdder queries = new LongAdder();
+	/** 重新加载次数 */
+	final LongAdder reloads = new LongAdder();
+	/** 重新加载累计耗时(纳秒) */
+	final LongAdder reloadNanos = new LongAdder();
+	/** 等待重新加载锁的累计耗时(纳秒) */
+	final LongAdder reloadLockWaitNanos = new LongAdder();
+	/** 最近一次重新加载的耗时(纳秒) */
+	volatile long lastReloadNanos;
+
+	/**
+	 * 记录按标识查询
+	 * 
+	 * @param hit
+	 *            是否命中
+	 */
+	void get(boolean hit) {
+		gets.increment();
+		if (!hit) {
+			getMisses.increment();
+		}
+	}
+
+	/**
+	 * 记录索引查询
+	 * 
+	 * @param hit
+	 *            是否命中
+	 */
+	void index(boolean hit) {
+		indexQueries.increment();
+		if (!hit) {
+			indexMisses.increment();
+		}
+	}
+
+	/**
+	 * 记录唯一索引查询
+	 * 
+	 * @param hit
+	 *            是否命中
+	 */
+	void unique(boolean hit) {
+		uniqueQueries.increment();
+		if (!hit) {
+			uniqueMisses.increment();
+		}
+	}
+
+	/**
+	 * 记录一次重新加载
+	 * 
+	 * @param nanos
+	 *            耗时(纳秒)
+	 */
+	void reload(long nanos) {
+		reloads.increment();
+		reloadNanos.add(nanos);
+		lastReloadNanos = nanos;
+	}
+
+}
@@ -0,0 +1,488 @@
+package com.windforce.common.resource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.windforce.common.resource.anno.IndexType;
+import com.windforce.common.resource.other.CompositeIndexGetter;
+import com.windforce.common.resource.other.IndexGetter;
+import com.windforce.common.resource.store.RangeTable;
+
+/**
+ * 存储空间的多条件查询
+ * 
+ * <pre>
+ * 执行过程：
+ * 1.取出每个索引条件对应的索引内容(只读列表或区间视图，不会复制)，任意一个为空时直接返回
+ * 2.以其中最小的索引内容为遍历对象，其余索引条件通过读取资源实例的索引值逐个判断，不需要求交集
+ * 3.依次执行过滤条件，按需排序并截取前若干个结果，只有最终结果会创建列表
+ * 索引条件的解析结果(索引类型与索引值获取器)按条件的索引名组合缓存在存储空间中，相同形式的查询只解析一次
+ * 
+ * 用法示例：
+ * List&lt;Item&gt; items = storage.query().where(Item.INDEX_TYPE, 1).between(Item.INDEX_LEVEL, 10, 20)
+ * 		.filter(predicate).orderBy(comparator).limit(10).list();
+ * </pre>
+ * 
+ * @author frank
+ */
+public class StorageQuery<V> {
+
+	private static final Logger logger = LoggerFactory.getLogger(StorageQuery.class);
+
+	/** 排序后截取结果时使用插入排序的最大数量，超过时先完整排序再截取 */
+	private static final int TOP_LIMIT = 256;
+
+	private final Storage<?, V> storage;
+	/** 索引条件的索引名，同时是查询计划的缓存键 */
+	private final List<String> names = new ArrayList<String>(2);
+	/** 索引条件 */
+	private final List<Condition> conditions = new ArrayList<Condition>(2);
+	/** 过滤条件 */
+	private final List<Predicate<? super V>> filters = new ArrayList<Predicate<? super V>>(1);
+	/** 排序器 */
+	private Comparator<? super V> comparator;
+	/** 最大结果数量 */
+	private int limit = Integer.MAX_VALUE;
+
+	StorageQuery(Storage<?, V> storage) {
+		this.storage = storage;
+	}
+
+	/**
+	 * 增加索引值相等的条件
+	 * 
+	 * @param name
+	 *            索引名(列表索引、唯一索引、位图索引或区间索引)
+	 * @param value
+	 *            索引值
+	 * @return
+	 */
+	public StorageQuery<V> where(String name, Object value) {
+		return add(name, new Condition(new Object[] { value }));
+	}
+
+	/**
+	 * 增加组合索引值相等的条件
+	 * 
+	 * @param name
+	 *            组合索引名
+	 * @param parts
+	 *            组合索引各属性的值
+	 * @return
+	 */
+	public StorageQuery<V> whereComposite(String name, Object... parts) {
+		if (parts == null) {
+			// 以 null 作为唯一参数调用时参数数组为 null，视为单个 null 值
+			parts = new Object[] { null };
+		}
+		return add(name, new Condition(parts));
+	}
+
+	/**
+	 * 增加区间索引值在指定闭区间内的条件
+	 * 
+	 * @param name
+	 *            区间索引名
+	 * @param from
+	 *            区间起始值(包含)
+	 * @param to
+	 *            区间结束值(包含)
+	 * @return
+	 */
+	public StorageQuery<V> between(String name, long from, long to) {
+		return add(name, new Condition(from, to));
+	}
+
+	/**
+	 * 增加过滤条件，在全部索引条件满足后按添加顺序执行
+	 * 
+	 * @param filter
+	 *            过滤条件
+	 * @return
+	 */
+	public StorageQuery<V> filter(Predicate<? super V> filter) {
+		filters.add(filter);
+		return this;
+	}
+
+	/**
+	 * 设置结果的排序器，未设置时按遍历的索引内容的顺序返回
+	 * 
+	 * @param comparator
+	 *            排序器
+	 * @return
+	 */
+	public StorageQuery<V> orderBy(Comparator<? super V> comparator) {
+		this.comparator = comparator;
+		return this;
+	}
+
+	/**
+	 * 设置最大结果数量
+	 * 
+	 * @param limit
+	 *            最大结果数量
+	 * @return
+	 */
+	public StorageQuery<V> limit(int limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("最大结果数量[" + limit + "]不能为负数");
+		}
+		this.limit = limit;
+		return this;
+	}
+
+	/**
+	 * 执行查询
+	 * 
+	 * @return 不存在会返回{@link Collections#EMPTY_LIST}，返回的列表由调用方持有
+	 */
+	public List<V> list() {
+		return execute(limit);
+	}
+
+	/**
+	 * 执行查询并返回第一个结果
+	 * 
+	 * @return 不存在会返回 null
+	 */
+	public V first() {
+		List<V> result = execute(Math.min(limit, 1));
+		return result.isEmpty() ? null : result.get(0);
+	}
+
+	/**
+	 * 执行查询并返回结果数量，不会创建结果列表
+	 * 
+	 * @return
+	 */
+	public int count() {
+		Collection<V> driver = drive();
+		int count = 0;
+		for (V row : driver) {
+			if (count >= limit) {
+				break;
+			}
+			if (accept(row, driver)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private StorageQuery<V> add(String name, Condition condition) {
+		names.add(name);
+		conditions.add(condition);
+		return this;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<V> execute(int max) {
+		Collection<V> driver = drive();
+		if (driver.isEmpty() || max == 0) {
+			return Collections.EMPTY_LIST;
+		}
+		if (comparator == null) {
+			List<V> result = new ArrayList<V>(Math.min(max, driver.size()));
+			for (V row : driver) {
+				if (accept(row, driver)) {
+					result.add(row);
+					if (result.size() >= max) {
+						break;
+					}
+				}
+			}
+			return result;
+		}
+		if (max <= TOP_LIMIT) {
+			return top(driver, max);
+		}
+		List<V> result = new ArrayList<V>();
+		for (V row : driver) {
+			if (accept(row, driver)) {
+				result.add(row);
+			}
+		}
+		Collections.sort(result, comparator);
+		if (result.size() > max) {
+			return new ArrayList<V>(result.subList(0, max));
+		}
+		return result;
+	}
+
+	/**
+	 * 通过插入排序保留排在最前面的若干个结果，排序相同的结果保持遍历顺序
+	 * 
+	 * @param driver
+	 *            遍历的索引内容
+	 * @param max
+	 *            最大结果数量
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private List<V> top(Collection<V> driver, int max) {
+		Object[] top = new Object[Math.min(max, driver.size())];
+		int size = 0;
+		for (V row : driver) {
+			if (size == top.length && comparator.compare(row, (V) top[size - 1]) >= 0) {
+				continue;
+			}
+			if (!accept(row, driver)) {
+				continue;
+			}
+			// 找到第一个排在当前结果之后的位置
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (comparator.compare(row, (V) top[mid]) < 0) {
+					high = mid;
+				} else {
+					low = mid + 1;
+				}
+			}
+			int moved = (size == top.length ? size - 1 : size) - low;
+			System.arraycopy(top, low, top, low + 1, moved);
+			top[low] = row;
+			if (size < top.length) {
+				size++;
+			}
+		}
+		List<V> result = new ArrayList<V>(size);
+		for (int i = 0; i < size; i++) {
+			result.add((V) top[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * 取出各索引条件对应的索引内容并选出最小的一个作为遍历对象
+	 * 
+	 * @return
+	 */
+	private Collection<V> drive() {
+		Source<V> source = storage.source();
+		if (conditions.isEmpty()) {
+			return source.all();
+		}
+		Plan plan = storage.getPlan(names);
+		Collection<V> driver = null;
+		for (int i = 0; i < conditions.size(); i++) {
+			Condition condition = conditions.get(i);
+			condition.getter = plan.getters[i];
+			condition.kind = plan.kinds[i];
+			Collection<V> content = content(source, names.get(i), condition);
+			if (content.isEmpty()) {
+				return content;
+			}
+			condition.content = content;
+			if (driver == null || content.size() < driver.size()) {
+				driver = content;
+			}
+		}
+		return driver;
+	}
+
+	/**
+	 * 检查资源实例是否满足全部条件
+	 * 
+	 * @param row
+	 *            资源实例
+	 * @param driver
+	 *            遍历的索引内容，其对应的索引条件不需要再次判断
+	 * @return
+	 */
+	private boolean accept(V row, Collection<V> driver) {
+		for (int i = 0; i < conditions.size(); i++) {
+			Condition condition = conditions.get(i);
+			if (condition.content != driver && !condition.matches(row)) {
+				return false;
+			}
+		}
+		for (int i = 0; i < filters.size(); i++) {
+			if (!filters.get(i).test(row)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 获取索引条件对应的索引内容
+	 * 
+	 * @param source
+	 *            存储空间快照
+	 * @param name
+	 *            索引名
+	 * @param condition
+	 *            索引条件
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private Collection<V> content(Source<V> source, String name, Condition condition) {
+		if (condition.kind == Plan.MISSING) {
+			return Collections.EMPTY_LIST;
+		}
+		if (condition.kind == Plan.RANGE) {
+			RangeTable<V> range = source.range(name);
+			return range == null ? Collections.EMPTY_LIST : range.range(condition.from, condition.to);
+		}
+		if (condition.between) {
+			FormattingTuple message = MessageFormatter.format("索引[{}]不是区间索引，不能进行区间查询", name);
+			logger.error(message.getMessage());
+			throw new IllegalArgumentException(message.getMessage());
+		}
+		if (condition.kind == Plan.COMPOSITE) {
+			List<V> result = source.composite(name, condition.parts);
+			return result == null ? Collections.EMPTY_LIST : result;
+		}
+		if (condition.parts.length != 1) {
+			FormattingTuple message = MessageFormatter.format("索引[{}]不是组合索引，只能指定一个索引值", name);
+			logger.error(message.getMessage());
+			throw new IllegalArgumentException(message.getMessage());
+		}
+		if (condition.kind == Plan.UNIQUE) {
+			V result = source.unique(name, condition.parts[0]);
+			return result == null ? Collections.EMPTY_LIST : Collections.singletonList(result);
+		}
+		List<V> result = source.index(name, condition.parts[0]);
+		return result == null ? Collections.EMPTY_LIST : result;
+	}
+
+	/**
+	 * 索引条件
+	 * 
+	 * @author frank
+	 */
+	private static class Condition {
+
+		/** 索引值(组合索引为各属性的值) */
+		private final Object[] parts;
+		/** 是否为区间条件 */
+		private final boolean between;
+		/** 区间起始值 */
+		private final long from;
+		/** 区间结束值 */
+		private final long to;
+
+		/** 查询计划解析出的索引值获取器 */
+		private IndexGetter getter;
+		/** 查询计划解析出的索引类型 */
+		private int kind;
+		/** 本次执行取出的索引内容 */
+		private Collection<?> content;
+
+		Condition(Object[] parts) {
+			this.parts = parts;
+			this.between = false;
+			if (parts.length == 1 && parts[0] instanceof Number) {
+				long value = ((Number) parts[0]).longValue();
+				this.from = value;
+				this.to = value;
+			} else {
+				this.from = 1;
+				this.to = 0;
+			}
+		}
+
+		Condition(long from, long to) {
+			this.parts = null;
+			this.between = true;
+			this.from = from;
+			this.to = to;
+		}
+
+		/** 通过资源实例的索引值判断是否满足条件 */
+		boolean matches(Object row) {
+			Object value = getter.getValue(row);
+			if (kind == Plan.RANGE) {
+				if (value == null) {
+					return false;
+				}
+				long key = ((Number) value).longValue();
+				return key >= from && key <= to;
+			}
+			if (kind == Plan.COMPOSITE) {
+				return Arrays.asList(parts).equals(value);
+			}
+			return parts[0] == null ? value == null : parts[0].equals(value);
+		}
+	}
+
+	/**
+	 * 查询计划，记录各索引条件对应的索引类型与索引值获取器
+	 * 
+	 * @author frank
+	 */
+	static class Plan {
+
+		/** 索引不存在 */
+		static final int MISSING = 0;
+		/** 列表索引(包括位图索引) */
+		static final int LIST = 1;
+		/** 唯一索引 */
+		static final int UNIQUE = 2;
+		/** 组合索引 */
+		static final int COMPOSITE = 3;
+		/** 区间索引 */
+		static final int RANGE = 4;
+
+		private final IndexGetter[] getters;
+		private final int[] kinds;
+
+		Plan(List<String> names, Map<String, IndexGetter> indexGetters) {
+			this.getters = new IndexGetter[names.size()];
+			this.kinds = new int[names.size()];
+			for (int i = 0; i < getters.length; i++) {
+				IndexGetter getter = indexGetters.get(names.get(i));
+				getters[i] = getter;
+				if (getter == null) {
+					kinds[i] = MISSING;
+				} else if (getter instanceof CompositeIndexGetter) {
+					kinds[i] = COMPOSITE;
+				} else if (getter.getType() == IndexType.RANGE) {
+					kinds[i] = RANGE;
+				} else if (getter.isUnique()) {
+					kinds[i] = UNIQUE;
+				} else {
+					kinds[i] = LIST;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 查询使用的存储空间快照内容
+	 * 
+	 * @author frank
+	 */
+	interface Source<V> {
+
+		/** 全部资源实例 */
+		Collection<V> all();
+
+		/** 列表索引内容，不存在时返回 null */
+		List<V> index(String name, Object value);
+
+		/** 唯一索引实例，不存在时返回 null */
+		V unique(String name, Object value);
+
+		/** 组合索引内容，不存在时返回 null */
+		List<V> composite(String name, Object[] parts);
+
+		/** 区间索引，不存在时返回 null */
+		RangeTable<V> range(String name);
+	}
+
+}
@@ -0,0 +1,167 @@
+package com.windforce.common.resource;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.lang.builder.ReflectionToStringBuilder;
+
+import com.windforce.common.resource.store.StoreLayout;
+
+/**
+ * 存储空间统计信息快照
+ * 
+ * <pre>
+ * 计数类的统计值为开启计数以来的累计值，未开启计数时为 0
+ * </pre>
+ * 
+ * @author frank
+ */
+public class StorageStats {
+
+	/** 资源类 */
+	private final Class<?> clz;
+	/** 是否已完成加载(延迟加载的资源在首次访问前为 false) */
+	private final boolean loaded;
+	/** 主存储结构布局 */
+	private final StoreLayout layout;
+	/** 资源实例数量 */
+	private final int size;
+	/** 各索引的索引值数量 */
+	private final Map<String, Integer> indexSizes;
+	/** 按标识查询次数 */
+	private final long gets;
+	/** 按标识查询未命中次数 */
+	private final long getMisses;
+	/** 索引查询次数 */
+	private final long indexQueries;
+	/** 索引查询未命中次数 */
+	private final long indexMisses;
+	/** 唯一索引查询次数 */
+	private final long uniqueQueries;
+	/** 唯一索引查询未命中次数 */
+	private final long uniqueMisses;
+	/** 区间索引查询次数 */
+	private final long rangeQueries;
+	/** 多条件查询次数 */
+	private final long queries;
+	/** 重新加载次数 */
+	private final long reloads;
+	/** 重新加载累计耗时(纳秒) */
+	private final long reloadNanos;
+	/** 最近一次重新加载的耗时(纳秒) */
+	private final long lastReloadNanos;
+	/** 等待重新加载锁的累计耗时(纳秒) */
+	private final long reloadLockWaitNanos;
+
+	StorageStats(Class<?> clz, boolean loaded, StoreLayout layout, int size, Map<String, Integer> indexSizes,
+			StorageMetrics metrics) {
+		this.clz = clz;
+		this.loaded = loaded;
+		this.layout = layout;
+		this.size = size;
+		this.indexSizes = Collections.unmodifiableMap(indexSizes);
+		if (metrics == null) {
+			this.gets = 0;
+			this.getMisses = 0;
+			this.indexQueries = 0;
+			this.indexMisses = 0;
+			this.uniqueQueries = 0;
+			this.uniqueMisses = 0;
+			this.rangeQueries = 0;
+			this.queries = 0;
+			this.reloads = 0;
+			this.reloadNanos = 0;
+			this.lastReloadNanos = 0;
+			this.reloadLockWaitNanos = 0;
+		} else {
+			this.gets = metrics.gets.sum();
+			this.getMisses = metrics.getMisses.sum();
+			this.indexQueries = metrics.indexQueries.sum();
+			this.indexMisses = metrics.indexMisses.sum();
+			this.uniqueQueries = metrics.uniqueQueries.sum();
+			this.uniqueMisses = metrics.uniqueMisses.sum();
+			this.rangeQueries = metrics.rangeQueries.sum();
+			this.queries = metrics.queries.sum();
+			this.reloads = metrics.reloads.sum();
+			this.reloadNanos = metrics.reloadNanos.sum();
+			this.lastReloadNanos = metrics.lastReloadNanos;
+			this.reloadLockWaitNanos = metrics.reloadLockWaitNanos.sum();
+		}
+	}
+
+	// Getter and Setter ...
+
+	public Class<?> getClz() {
+		return clz;
+	}
+
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	public StoreLayout getLayout() {
+		return layout;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public Map<String, Integer> getIndexSizes() {
+		return indexSizes;
+	}
+
+	public long getGets() {
+		return gets;
+	}
+
+	public long getGetMisses() {
+		return getMisses;
+	}
+
+	public long getIndexQueries() {
+		return indexQueries;
+	}
+
+	public long getIndexMisses() {
+		return indexMisses;
+	}
+
+	public long getUniqueQueries() {
+		return uniqueQueries;
+	}
+
+	public long getUniqueMisses() {
+		return uniqueMisses;
+	}
+
+	public long getRangeQueries() {
+		return rangeQueries;
+	}
+
+	public long getQueries() {
+		return queries;
+	}
+
+	public long getReloads() {
+		return reloads;
+	}
+
+	public long getReloadNanos() {
+		return reloadNanos;
+	}
+
+	public long getLastReloadNanos() {
+		return lastReloadNanos;
+	}
+
+	public long getReloadLockWaitNanos() {
+		return reloadLockWaitNanos;
+	}
+
+	@Override
+	public String toString() {
+		return ReflectionToStringBuilder.toString(this);
+	}
+
+}
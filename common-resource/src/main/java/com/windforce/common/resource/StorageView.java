@@ -0,0 +1,27 @@
+package com.windforce.common.resource;
+
+import java.util.Collection;
+
+/**
+ * 存储空间的聚合视图
+ * 
+ * <pre>
+ * 通过{@link Storage#addView(String, StorageView)}注册，在构建快照时使用全部资源实例计算一次，
+ * 结果随快照一起替换，通过{@link Storage#getView(String)}无锁读取，
+ * 常用的分组统计可以通过{@link StorageViews}创建
+ * </pre>
+ * 
+ * @author frank
+ */
+public interface StorageView<V, R> {
+
+	/**
+	 * 计算视图内容
+	 * 
+	 * @param values
+	 *            全部资源实例(只读)
+	 * @return 视图内容，会被多个线程共享，应当是不可修改的对象
+	 */
+	R compute(Collection<V> values);
+
+}
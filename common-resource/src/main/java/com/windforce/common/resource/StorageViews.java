@@ -0,0 +1,127 @@
+package com.windforce.common.resource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 常用的分组统计视图
+ * 
+ * <pre>
+ * 全部视图都按分组函数的返回值分组，结果为不可修改的{@link Map}，没有资源实例的分组不会出现在结果中
+ * 用法示例：
+ * storage.addView(VIEW_WEIGHT, StorageViews.sum(groupFunction, weightFunction));
+ * Map&lt;Integer, Long&gt; weights = storage.getView(VIEW_WEIGHT);
+ * </pre>
+ * 
+ * @author frank
+ */
+public class StorageViews {
+
+	/**
+	 * 统计每个分组的资源实例数量
+	 * 
+	 * @param group
+	 *            分组函数
+	 * @return
+	 */
+	public static <V, G> StorageView<V, Map<G, Integer>> count(Function<? super V, ? extends G> group) {
+		return reduce(group, 0, new BiFunction<Integer, V, Integer>() {
+			@Override
+			public Integer apply(Integer result, V value) {
+				return result + 1;
+			}
+		});
+	}
+
+	/**
+	 * 统计每个分组的数值之和
+	 * 
+	 * @param group
+	 *            分组函数
+	 * @param number
+	 *            数值函数
+	 * @return
+	 */
+	public static <V, G> StorageView<V, Map<G, Long>> sum(Function<? super V, ? extends G> group,
+			final ToLongFunction<? super V> number) {
+		return reduce(group, 0L, new BiFunction<Long, V, Long>() {
+			@Override
+			public Long apply(Long result, V value) {
+				return result + number.applyAsLong(value);
+			}
+		});
+	}
+
+	/**
+	 * 统计每个分组的最小数值
+	 * 
+	 * @param group
+	 *            分组函数
+	 * @param number
+	 *            数值函数
+	 * @return
+	 */
+	public static <V, G> StorageView<V, Map<G, Long>> min(Function<? super V, ? extends G> group,
+			final ToLongFunction<? super V> number) {
+		return reduce(group, null, new BiFunction<Long, V, Long>() {
+			@Override
+			public Long apply(Long result, V value) {
+				long current = number.applyAsLong(value);
+				return result == null ? current : Math.min(result, current);
+			}
+		});
+	}
+
+	/**
+	 * 统计每个分组的最大数值
+	 * 
+	 * @param group
+	 *            分组函数
+	 * @param number
+	 *            数值函数
+	 * @return
+	 */
+	public static <V, G> StorageView<V, Map<G, Long>> max(Function<? super V, ? extends G> group,
+			final ToLongFunction<? super V> number) {
+		return reduce(group, null, new BiFunction<Long, V, Long>() {
+			@Override
+			public Long apply(Long result, V value) {
+				long current = number.applyAsLong(value);
+				return result == null ? current : Math.max(result, current);
+			}
+		});
+	}
+
+	/**
+	 * 使用自定义的归约函数统计每个分组
+	 * 
+	 * @param group
+	 *            分组函数
+	 * @param identity
+	 *            每个分组的初始值
+	 * @param reducer
+	 *            归约函数，参数为当前结果与资源实例，返回新的结果
+	 * @return
+	 */
+	public static <V, G, R> StorageView<V, Map<G, R>> reduce(final Function<? super V, ? extends G> group,
+			final R identity, final BiFunction<R, ? super V, R> reducer) {
+		return new StorageView<V, Map<G, R>>() {
+			@Override
+			public Map<G, R> compute(Collection<V> values) {
+				Map<G, R> result = new HashMap<G, R>();
+				for (V value : values) {
+					G key = group.apply(value);
+					R current = result.containsKey(key) ? result.get(key) : identity;
+					result.put(key, reducer.apply(current, value));
+				}
+				return Collections.unmodifiableMap(result);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,38 @@
+package com.windforce.common.resource.anno;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Comparator;
+
+/**
+ * 静态资源多属性组合索引声明
+ * 
+ * <pre>
+ * 通过 Storage#getCompositeIndex(String, Object...) 和 Storage#getCompositeUnique(String, Object...) 查询，
+ * 查询参数的顺序与{@link #fields()}一致
+ * </pre>
+ * 
+ * @author frank
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(CompositeIndexes.class)
+public @interface CompositeIndex {
+
+	/** 索引名，同一资源的索引名必须唯一 */
+	String name();
+
+	/** 组成索引的属性名 */
+	String[] fields();
+
+	/** 索引值是否唯一 */
+	boolean unique() default false;
+
+	/** 排序器配置 */
+	@SuppressWarnings("rawtypes")
+	Class<? extends Comparator> comparatorClz() default Comparator.class;
+
+}
@@ -0,0 +1,19 @@
+package com.windforce.common.resource.anno;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link CompositeIndex} 的容器注释
+ * 
+ * @author frank
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CompositeIndexes {
+
+	CompositeIndex[] value();
+
+}
@@ -20,6 +20,9 @@ public @interface Index {
 	/** 索引值是否唯一 */
 	boolean unique() default false;
 
+	/** 索引类型 */
+	IndexType type() default IndexType.EXACT;
+
 	/** 排序器配置 */
 	@SuppressWarnings("rawtypes")
 	Class<? extends Comparator> comparatorClz() default Comparator.class;
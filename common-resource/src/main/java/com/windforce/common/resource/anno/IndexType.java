@@ -0,0 +1,23 @@
+package com.windforce.common.resource.anno;
+
+/**
+ * 静态资源索引类型
+ * 
+ * @author frank
+ */
+public enum IndexType {
+
+	/** 按索引值精确匹配，通过 Storage#getIndex 和 Storage#getUnique 查询 */
+	EXACT,
+	/**
+	 * 按索引值排序的区间索引，通过 Storage#floor、Storage#ceiling 和 Storage#range 查询，
+	 * 索引值必须是 byte/short/int/long 或其包装类型
+	 */
+	RANGE,
+	/**
+	 * 位图索引，适用于枚举、布尔等取值较少的属性，除了 Storage#getIndex 外，
+	 * 还可以通过 Storage#bitmapQuery 对多个位图索引进行与、或、非组合查询，不支持唯一索引
+	 */
+	BITMAP;
+
+}
@@ -31,4 +31,22 @@ public @interface Resource {
 	/** 文件目录 */
 	String location() default "";
 
+	/**
+	 * 是否使用堆外存储，适用于行数极多且主要按标识查询的资源。
+	 * 资源实例编码后保存在堆外内存中，每次获取时重新解码，因此不同次获取得到的实例不保证是同一个对象
+	 */
+	boolean offHeap() default false;
+
+	/** 堆外存储的解码缓存数量，0表示不缓存(仅在{@link #offHeap()}为true时有效) */
+	int decodeCache() default 0;
+
+	/** 是否延迟加载，延迟加载的资源在启动时不读取，首次访问其存储空间的内容时才加载 */
+	boolean lazy() default false;
+
+	/**
+	 * 是否在加载时对资源实例的属性值去重，内容相同的字符串、包装类型以及不可变的嵌套对象与集合在各实例间共享同一个对象。
+	 * 被共享的集合属性会替换为只读视图，可变的嵌套对象与数组不共享(不适用于堆外存储)
+	 */
+	boolean dedup() default false;
+
 }
@@ -0,0 +1,313 @@
+package com.windforce.common.resource.other;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.windforce.common.utility.ReflectionUtility;
+
+/**
+ * 资源类的访问器工厂
+ * 
+ * <pre>
+ * 代替{@link Field#get(Object)}、{@link Field#set(Object, Object)}、{@link Method#invoke(Object, Object...)}
+ * 与{@link Class#newInstance()}：
+ * 1.公开类的公开方法与公开无参构造方法通过{@link LambdaMetafactory}生成实现类，调用与直接调用相同
+ * 2.不满足上述条件的方法与构造方法使用{@link MethodHandle}，无法创建时(例如未开放的模块)使用反射
+ * 3.属性域使用关闭了访问检查的反射：保存在普通属性中(非常量)的{@link MethodHandle}在 JDK 8 上并不比反射快，
+ *   基本类型属性通过{@link Setter#setInt(Object, int)}等方法设置，不经过装箱
+ * 访问器是线程安全的，应当在创建后缓存复用
+ * </pre>
+ * 
+ * @author frank
+ */
+public final class Accessors {
+
+	private static final Logger logger = LoggerFactory.getLogger(Accessors.class);
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private Accessors() {
+	}
+
+	/**
+	 * 创建属性域的读取器
+	 * 
+	 * @param field
+	 * @return
+	 */
+	public static Getter getter(Field field) {
+		ReflectionUtility.makeAccessible(field);
+		return new FieldGetter(field);
+	}
+
+	/**
+	 * 创建属性域的设置器
+	 * 
+	 * @param field
+	 * @return
+	 */
+	public static Setter setter(Field field) {
+		ReflectionUtility.makeAccessible(field);
+		return new FieldSetter(field);
+	}
+
+	/**
+	 * 创建无参方法的读取器
+	 * 
+	 * @param method
+	 * @return
+	 */
+	public static Getter getter(Method method) {
+		if (method.getParameterTypes().length != 0 || Modifier.isStatic(method.getModifiers())) {
+			throw new IllegalArgumentException("方法[" + method + "]不是无参的实例方法");
+		}
+		if (isPublic(method.getDeclaringClass()) && Modifier.isPublic(method.getModifiers())) {
+			try {
+				MethodHandle handle = LOOKUP.unreflect(method);
+				CallSite site = LambdaMetafactory.metafactory(LOOKUP, "getValue", MethodType.methodType(Getter.class),
+						GETTER_TYPE, handle, handle.type().wrap().changeReturnType(Object.class));
+				return (Getter) site.getTarget().invoke();
+			} catch (Throwable e) {
+				logger.debug("方法[{}]无法生成访问器，使用方法句柄访问", method);
+			}
+		}
+		ReflectionUtility.makeAccessible(method);
+		try {
+			return new HandleGetter(LOOKUP.unreflect(method).asType(GETTER_TYPE));
+		} catch (IllegalAccessException e) {
+			logger.debug("方法[{}]无法创建方法句柄，使用反射访问", method);
+			return new MethodGetter(method);
+		}
+	}
+
+	/**
+	 * 创建使用无参构造方法的实例创建器
+	 * 
+	 * @param clz
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Supplier<T> constructor(Class<T> clz) {
+		Constructor<T> constructor;
+		try {
+			constructor = clz.getDeclaredConstructor();
+		} catch (NoSuchMethodException e) {
+			// 保持与 Class#newInstance() 一致的异常
+			return new ClassSupplier<T>(clz);
+		}
+		if (isPublic(clz) && Modifier.isPublic(constructor.getModifiers()) && !Modifier.isAbstract(clz.getModifiers())) {
+			try {
+				MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+				CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+						MethodType.methodType(Object.class), handle, MethodType.methodType(clz));
+				return (Supplier<T>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				logger.debug("类[{}]无法生成构造器，使用方法句柄访问", clz);
+			}
+		}
+		ReflectionUtility.makeAccessible(constructor);
+		try {
+			MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+			return new HandleSupplier<T>(handle.asType(MethodType.methodType(Object.class)));
+		} catch (IllegalAccessException e) {
+			logger.debug("类[{}]无法创建方法句柄，使用反射访问", clz);
+			return new ClassSupplier<T>(clz);
+		}
+	}
+
+	/**
+	 * 类型是否可以被生成的访问器直接引用(公开且对当前类加载器可见)
+	 */
+	private static boolean isPublic(Class<?> clz) {
+		for (Class<?> current = clz; current != null; current = current.getEnclosingClass()) {
+			if (!Modifier.isPublic(current.getModifiers())) {
+				return false;
+			}
+		}
+		try {
+			return Class.forName(clz.getName(), false, Accessors.class.getClassLoader()) == clz;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	/** 抛出方法句柄调用时的异常，受检异常包装为运行时异常 */
+	private static RuntimeException rethrow(Throwable e) {
+		if (e instanceof RuntimeException) {
+			throw (RuntimeException) e;
+		}
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		throw new IllegalStateException(e);
+	}
+
+	private static class HandleGetter implements Getter {
+
+		private final MethodHandle handle;
+
+		HandleGetter(MethodHandle handle) {
+			this.handle = handle;
+		}
+
+		@Override
+		public Object getValue(Object target) {
+			try {
+				return (Object) handle.invokeExact(target);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+	}
+
+	private static class HandleSupplier<T> implements Supplier<T> {
+
+		private final MethodHandle handle;
+
+		HandleSupplier(MethodHandle handle) {
+			this.handle = handle;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T get() {
+			try {
+				return (T) (Object) handle.invokeExact();
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+	}
+
+	/** 检查属性类型是否为指定的基本类型 */
+	private static void checkType(Field field, Class<?> type) {
+		if (field.getType() != type) {
+			throw new IllegalStateException("属性[" + field + "]不是" + type + "类型");
+		}
+	}
+
+	private static class FieldGetter implements Getter {
+
+		private final Field field;
+
+		FieldGetter(Field field) {
+			this.field = field;
+		}
+
+		@Override
+		public Object getValue(Object target) {
+			try {
+				return field.get(target);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static class FieldSetter implements Setter {
+
+		private final Field field;
+
+		FieldSetter(Field field) {
+			this.field = field;
+		}
+
+		@Override
+		public void setValue(Object target, Object value) {
+			try {
+				field.set(target, value);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public void setInt(Object target, int value) {
+			checkType(field, int.class);
+			try {
+				field.setInt(target, value);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public void setLong(Object target, long value) {
+			checkType(field, long.class);
+			try {
+				field.setLong(target, value);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public void setDouble(Object target, double value) {
+			checkType(field, double.class);
+			try {
+				field.setDouble(target, value);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public void setByte(Object target, byte value) {
+			checkType(field, byte.class);
+			try {
+				field.setByte(target, value);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static class MethodGetter implements Getter {
+
+		private final Method method;
+
+		MethodGetter(Method method) {
+			this.method = method;
+		}
+
+		@Override
+		public Object getValue(Object target) {
+			try {
+				return method.invoke(target);
+			} catch (Exception e) {
+				throw rethrow(e);
+			}
+		}
+	}
+
+	private static class ClassSupplier<T> implements Supplier<T> {
+
+		private final Class<T> clz;
+
+		ClassSupplier(Class<T> clz) {
+			this.clz = clz;
+		}
+
+		@Override
+		public T get() {
+			try {
+				return clz.newInstance();
+			} catch (Exception e) {
+				throw rethrow(e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.windforce.common.resource.other;
+
+/**
+ * 组合索引值获取器接口，{@link #getValue(Object)}返回由各属性值组成的只读列表
+ * 
+ * @author frank
+ */
+public interface CompositeIndexGetter extends IndexGetter {
+
+	/**
+	 * 获取组成索引的属性名
+	 * 
+	 * @return
+	 */
+	String[] getFields();
+
+}
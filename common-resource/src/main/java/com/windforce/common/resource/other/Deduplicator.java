@@ -0,0 +1,289 @@
+package com.windforce.common.resource.other;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * 资源实例属性值的去重器
+ * 
+ * <pre>
+ * 一次加载使用一个去重器，加载结束后即可丢弃：
+ * 1.字符串与包装类型通过加载范围内的表共享同一个实例
+ * 2.嵌套对象、集合与数组先对其内容去重，列表元素与{@link Map}的值直接在原对象中替换，{@link Map}的键与其他集合的元素保持不变
+ * 3.只有不可变的值才会按{@link DeepEquals}比较内容后共享第一次出现的实例：
+ *   全部属性为 final 且属性值不可变的嵌套对象，以及元素不可变的列表、{@link Map}与{@link Set}。
+ *   集合在共享前替换为只读视图(属性声明的类型无法接受只读视图时不共享)，数组与其他可变的值不共享
+ * 资源实例本身不会被替换
+ * </pre>
+ * 
+ * @author frank
+ */
+public class Deduplicator {
+
+	private static final Logger logger = LoggerFactory.getLogger(Deduplicator.class);
+
+	/** 字符串表 */
+	private final Map<String, String> strings = new HashMap<String, String>();
+	/** 包装类型表 */
+	private final Map<Object, Object> boxes = new HashMap<Object, Object>();
+	/** 不可变的嵌套对象与只读集合表 */
+	private final Map<Key, Object> values = new HashMap<Key, Object>();
+	/** 已确认不可变的嵌套对象与只读集合(按对象身份) */
+	private final Set<Object> sealed = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+	/** 被替换为共享实例的次数 */
+	private int shared;
+
+	/**
+	 * 对资源实例的属性值去重
+	 * 
+	 * @param row
+	 *            资源实例
+	 */
+	public void dedup(Object row) {
+		dedupFields(row);
+	}
+
+	/**
+	 * 获取被替换为共享实例的属性值数量
+	 * 
+	 * @return
+	 */
+	public int getShared() {
+		return shared;
+	}
+
+	/**
+	 * 获取去重表中不同属性值的数量
+	 * 
+	 * @return
+	 */
+	public int getDistinct() {
+		return strings.size() + boxes.size() + values.size();
+	}
+
+	/**
+	 * 获取内容相同的共享实例
+	 * 
+	 * @param value
+	 *            属性值
+	 * @param slot
+	 *            属性值所在位置声明的类型，用于判断能否替换为只读集合
+	 * @return
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object canonical(Object value, Class<?> slot) {
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof String) {
+			String prev = strings.get(value);
+			if (prev == null) {
+				strings.put((String) value, (String) value);
+				return value;
+			}
+			return share(prev);
+		}
+		Class<?> clz = value.getClass();
+		if (isBox(clz)) {
+			Object prev = boxes.get(value);
+			if (prev == null) {
+				boxes.put(value, value);
+				return value;
+			}
+			return share(prev);
+		}
+		if (clz.isEnum() || value instanceof Enum || sealed.contains(value)) {
+			return value;
+		}
+
+		Object result;
+		if (value instanceof Object[]) {
+			// 数组无法设为只读，只对元素去重
+			Object[] array = (Object[]) value;
+			for (int i = 0; i < array.length; i++) {
+				array[i] = canonical(array[i], clz.getComponentType());
+			}
+			return value;
+		} else if (value instanceof List) {
+			if (!dedupElements((List) value) || !slot.isAssignableFrom(List.class)) {
+				return value;
+			}
+			result = Collections.unmodifiableList((List) value);
+		} else if (value instanceof Map) {
+			if (!dedupValues((Map) value) || !slot.isAssignableFrom(Map.class)) {
+				return value;
+			}
+			result = Collections.unmodifiableMap((Map) value);
+		} else if (value instanceof Set) {
+			for (Object element : (Set) value) {
+				if (!isImmutable(element)) {
+					return value;
+				}
+			}
+			if (!slot.isAssignableFrom(Set.class)) {
+				return value;
+			}
+			result = Collections.unmodifiableSet((Set) value);
+		} else if (clz.isArray() || value instanceof Collection || DeepEquals.isJdkType(clz)) {
+			// 基本类型数组、其他集合与其他 JDK 类型不保证是不可变的
+			return value;
+		} else {
+			if (!dedupFields(value)) {
+				return value;
+			}
+			result = value;
+		}
+
+		Key key = new Key(result);
+		Object prev = values.get(key);
+		if (prev == null) {
+			values.put(key, result);
+			sealed.add(result);
+			return result;
+		}
+		return share(prev);
+	}
+
+	/**
+	 * 对列表元素去重
+	 * 
+	 * @param list
+	 * @return 全部元素是否都是不可变的
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private boolean dedupElements(List list) {
+		boolean immutable = true;
+		try {
+			ListIterator it = list.listIterator();
+			while (it.hasNext()) {
+				Object element = it.next();
+				Object replaced = canonical(element, Object.class);
+				if (replaced != element) {
+					it.set(replaced);
+				}
+				immutable &= isImmutable(replaced);
+			}
+		} catch (UnsupportedOperationException e) {
+			// 只读列表保持原有元素
+			return false;
+		}
+		return immutable;
+	}
+
+	/**
+	 * 对映射的值去重
+	 * 
+	 * @param map
+	 * @return 全部键与值是否都是不可变的
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private boolean dedupValues(Map<?, ?> map) {
+		boolean immutable = true;
+		try {
+			for (Entry entry : map.entrySet()) {
+				Object element = entry.getValue();
+				Object replaced = canonical(element, Object.class);
+				if (replaced != element) {
+					entry.setValue(replaced);
+				}
+				immutable &= isImmutable(entry.getKey()) && isImmutable(replaced);
+			}
+		} catch (UnsupportedOperationException e) {
+			// 只读映射保持原有的值
+			return false;
+		}
+		return immutable;
+	}
+
+	/**
+	 * 对对象的属性值去重
+	 * 
+	 * @param obj
+	 * @return 对象是否是不可变的(全部属性都是 final 且属性值都是不可变的)
+	 */
+	private boolean dedupFields(Object obj) {
+		boolean immutable = true;
+		try {
+			for (Field field : DeepEquals.getFields(obj.getClass())) {
+				immutable &= Modifier.isFinal(field.getModifiers());
+				if (field.getType().isPrimitive()) {
+					continue;
+				}
+				Object value = field.get(obj);
+				Object replaced = canonical(value, field.getType());
+				if (replaced != value) {
+					field.set(obj, replaced);
+				}
+				immutable &= isImmutable(replaced);
+			}
+		} catch (IllegalAccessException e) {
+			FormattingTuple message = MessageFormatter.format("无法访问类[{}]的属性域", obj.getClass().getName());
+			logger.error(message.getMessage(), e);
+			throw new IllegalStateException(message.getMessage(), e);
+		}
+		return immutable;
+	}
+
+	/** 属性值是否是不可变的，可变的属性值不会被共享 */
+	private boolean isImmutable(Object value) {
+		if (value == null || value instanceof String || value instanceof Enum || sealed.contains(value)) {
+			return true;
+		}
+		return isBox(value.getClass());
+	}
+
+	private Object share(Object prev) {
+		shared++;
+		return prev;
+	}
+
+	private static boolean isBox(Class<?> clz) {
+		return clz == Integer.class || clz == Long.class || clz == Double.class || clz == Float.class
+				|| clz == Short.class || clz == Byte.class || clz == Character.class || clz == Boolean.class;
+	}
+
+	/**
+	 * 按内容比较的去重表键
+	 * 
+	 * @author frank
+	 */
+	private static class Key {
+
+		private final Object value;
+		private final int hash;
+
+		public Key(Object value) {
+			this.value = value;
+			this.hash = DeepEquals.hashCode(value);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && DeepEquals.equals(value, other.value);
+		}
+	}
+
+}
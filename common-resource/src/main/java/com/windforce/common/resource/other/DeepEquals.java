@@ -0,0 +1,288 @@
+package com.windforce.common.resource.other;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.windforce.common.resource.anno.Inject;
+import com.windforce.common.utility.ReflectionUtility;
+
+/**
+ * 资源实例的内容比较器
+ * 
+ * <pre>
+ * 资源类通常没有实现 equals 方法，这里按属性域逐个比较两个实例的内容：
+ * 1.JDK 类型(包装类型、字符串、枚举、日期等)使用其自身的 equals 方法
+ * 2.数组、{@link List}、{@link Map} 及其他集合逐个元素比较
+ * 3.其他类型递归比较全部非静态、非 transient 属性域，{@link Inject} 声明的属性域不参与比较
+ * 资源实例应当是树形结构，不支持存在循环引用的对象
+ * </pre>
+ * 
+ * @author frank
+ */
+public class DeepEquals {
+
+	private static final Logger logger = LoggerFactory.getLogger(DeepEquals.class);
+
+	/** 类型对应的参与比较的属性域 */
+	private static final ConcurrentMap<Class<?>, Field[]> FIELDS = new ConcurrentHashMap<Class<?>, Field[]>();
+
+	/**
+	 * 比较两个对象的内容是否一致
+	 * 
+	 * @param o1
+	 * @param o2
+	 * @return
+	 */
+	public static boolean equals(Object o1, Object o2) {
+		if (o1 == o2) {
+			return true;
+		}
+		if (o1 == null || o2 == null) {
+			return false;
+		}
+		Class<?> clz = o1.getClass();
+		if (clz != o2.getClass()) {
+			return false;
+		}
+		if (clz.isArray()) {
+			return arrayEquals(o1, o2);
+		}
+		if (o1 instanceof List) {
+			return iterableEquals((List<?>) o1, (List<?>) o2);
+		}
+		if (o1 instanceof Map) {
+			return mapEquals((Map<?, ?>) o1, (Map<?, ?>) o2);
+		}
+		if (o1 instanceof Collection) {
+			Collection<?> c1 = (Collection<?>) o1;
+			Collection<?> c2 = (Collection<?>) o2;
+			if (c1.size() != c2.size()) {
+				return false;
+			}
+			// 集合的元素依赖 equals 进行定位，顺序一致时可以逐个比较
+			return iterableEquals(c1, c2) || c1.equals(c2);
+		}
+		if (isJdkType(clz)) {
+			return o1.equals(o2);
+		}
+		try {
+			for (Field field : getFields(clz)) {
+				if (!equals(field.get(o1), field.get(o2))) {
+					return false;
+				}
+			}
+		} catch (IllegalAccessException e) {
+			FormattingTuple message = MessageFormatter.format("无法访问类[{}]的属性域", clz.getName());
+			logger.error(message.getMessage(), e);
+			throw new IllegalStateException(message.getMessage(), e);
+		}
+		return true;
+	}
+
+	/**
+	 * 计算与{@link #equals(Object, Object)}一致的散列值，内容一致的对象散列值相同
+	 * 
+	 * @param o
+	 * @return
+	 */
+	public static int hashCode(Object o) {
+		if (o == null) {
+			return 0;
+		}
+		Class<?> clz = o.getClass();
+		if (clz.isArray()) {
+			if (o instanceof Object[]) {
+				int h = 1;
+				for (Object element : (Object[]) o) {
+					h = 31 * h + hashCode(element);
+				}
+				return h;
+			}
+			return arrayHashCode(o);
+		}
+		if (o instanceof List) {
+			int h = 1;
+			for (Object element : (List<?>) o) {
+				h = 31 * h + hashCode(element);
+			}
+			return h;
+		}
+		if (o instanceof Map) {
+			// 与顺序无关，键使用自身的散列值(查找时依赖 equals 定位)
+			int h = 0;
+			for (Entry<?, ?> entry : ((Map<?, ?>) o).entrySet()) {
+				Object key = entry.getKey();
+				h += (key == null ? 0 : key.hashCode()) ^ hashCode(entry.getValue());
+			}
+			return h;
+		}
+		if (o instanceof Collection) {
+			int h = 0;
+			for (Object element : (Collection<?>) o) {
+				h += hashCode(element);
+			}
+			return h;
+		}
+		if (isJdkType(clz)) {
+			return o.hashCode();
+		}
+		int h = clz.hashCode();
+		try {
+			for (Field field : getFields(clz)) {
+				h = 31 * h + hashCode(field.get(o));
+			}
+		} catch (IllegalAccessException e) {
+			FormattingTuple message = MessageFormatter.format("无法访问类[{}]的属性域", clz.getName());
+			logger.error(message.getMessage(), e);
+			throw new IllegalStateException(message.getMessage(), e);
+		}
+		return h;
+	}
+
+	private static int arrayHashCode(Object o) {
+		if (o instanceof int[]) {
+			return Arrays.hashCode((int[]) o);
+		}
+		if (o instanceof long[]) {
+			return Arrays.hashCode((long[]) o);
+		}
+		if (o instanceof double[]) {
+			return Arrays.hashCode((double[]) o);
+		}
+		if (o instanceof float[]) {
+			return Arrays.hashCode((float[]) o);
+		}
+		if (o instanceof boolean[]) {
+			return Arrays.hashCode((boolean[]) o);
+		}
+		if (o instanceof byte[]) {
+			return Arrays.hashCode((byte[]) o);
+		}
+		if (o instanceof short[]) {
+			return Arrays.hashCode((short[]) o);
+		}
+		return Arrays.hashCode((char[]) o);
+	}
+
+	private static boolean arrayEquals(Object o1, Object o2) {
+		if (o1 instanceof Object[]) {
+			Object[] a1 = (Object[]) o1;
+			Object[] a2 = (Object[]) o2;
+			if (a1.length != a2.length) {
+				return false;
+			}
+			for (int i = 0; i < a1.length; i++) {
+				if (!equals(a1[i], a2[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (o1 instanceof int[]) {
+			return Arrays.equals((int[]) o1, (int[]) o2);
+		}
+		if (o1 instanceof long[]) {
+			return Arrays.equals((long[]) o1, (long[]) o2);
+		}
+		if (o1 instanceof double[]) {
+			return Arrays.equals((double[]) o1, (double[]) o2);
+		}
+		if (o1 instanceof float[]) {
+			return Arrays.equals((float[]) o1, (float[]) o2);
+		}
+		if (o1 instanceof boolean[]) {
+			return Arrays.equals((boolean[]) o1, (boolean[]) o2);
+		}
+		if (o1 instanceof byte[]) {
+			return Arrays.equals((byte[]) o1, (byte[]) o2);
+		}
+		if (o1 instanceof short[]) {
+			return Arrays.equals((short[]) o1, (short[]) o2);
+		}
+		return Arrays.equals((char[]) o1, (char[]) o2);
+	}
+
+	private static boolean iterableEquals(Collection<?> c1, Collection<?> c2) {
+		if (c1.size() != c2.size()) {
+			return false;
+		}
+		Iterator<?> it1 = c1.iterator();
+		Iterator<?> it2 = c2.iterator();
+		while (it1.hasNext()) {
+			if (!equals(it1.next(), it2.next())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean mapEquals(Map<?, ?> m1, Map<?, ?> m2) {
+		if (m1.size() != m2.size()) {
+			return false;
+		}
+		for (Entry<?, ?> entry : m1.entrySet()) {
+			Object key = entry.getKey();
+			Object value = m2.get(key);
+			if (value == null && !m2.containsKey(key)) {
+				return false;
+			}
+			if (!equals(entry.getValue(), value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static boolean isJdkType(Class<?> clz) {
+		if (clz.isPrimitive() || clz.isEnum() || Enum.class.isAssignableFrom(clz)) {
+			return true;
+		}
+		String name = clz.getName();
+		return name.startsWith("java.") || name.startsWith("javax.");
+	}
+
+	/**
+	 * 获取指定类型参与比较的属性域
+	 * 
+	 * @param clz
+	 * @return
+	 */
+	static Field[] getFields(Class<?> clz) {
+		Field[] result = FIELDS.get(clz);
+		if (result != null) {
+			return result;
+		}
+		List<Field> fields = new ArrayList<Field>();
+		for (Class<?> current = clz; current != null && current != Object.class; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+					continue;
+				}
+				if (field.isAnnotationPresent(Inject.class)) {
+					continue;
+				}
+				ReflectionUtility.makeAccessible(field);
+				fields.add(field);
+			}
+		}
+		result = fields.toArray(new Field[fields.size()]);
+		Field[] prev = FIELDS.putIfAbsent(clz, result);
+		return prev == null ? result : prev;
+	}
+
+}
@@ -3,18 +3,25 @@ package com.windforce.common.resource.other;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.FormattingTuple;
 import org.slf4j.helpers.MessageFormatter;
+import org.springframework.util.ReflectionUtils;
 
+import com.windforce.common.resource.anno.CompositeIndex;
 import com.windforce.common.resource.anno.Id;
 import com.windforce.common.resource.anno.Index;
+import com.windforce.common.resource.anno.IndexType;
 import com.windforce.common.utility.ReflectionUtility;
 
 /**
@@ -26,21 +33,24 @@ public class GetterBuilder {
 
 	private static final Logger logger = LoggerFactory.getLogger(GetterBuilder.class);
 
+	/** 区间索引支持的索引值类型 */
+	private static final Set<Class<?>> RANGE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>> asList(byte.class,
+			Byte.class, short.class, Short.class, int.class, Integer.class, long.class, Long.class));
+
 	/** 属性识别器 */
 	private static class FieldGetter implements Getter {
 
-		private final Field field;
+		private final Getter accessor;
 
 		public FieldGetter(Field field) {
-			ReflectionUtility.makeAccessible(field);
-			this.field = field;
+			this.accessor = Accessors.getter(field);
 		}
 
 		@Override
 		public Object getValue(Object object) {
 			Object value = null;
 			try {
-				value = field.get(object);
+				value = accessor.getValue(object);
 			} catch (Exception e) {
 				logger.error("标识符属性访问异常", e);
 				throw new RuntimeException("标识符属性访问异常");
@@ -52,18 +62,17 @@ public class GetterBuilder {
 	/** 方法识别器 */
 	private static class MethodGetter implements Getter {
 
-		private final Method method;
+		private final Getter accessor;
 
 		public MethodGetter(Method method) {
-			ReflectionUtility.makeAccessible(method);
-			this.method = method;
+			this.accessor = Accessors.getter(method);
 		}
 
 		@Override
 		public Object getValue(Object object) {
 			Object value = null;
 			try {
-				value = method.invoke(object);
+				value = accessor.getValue(object);
 			} catch (Exception e) {
 				FormattingTuple message = MessageFormatter.format("标识方法访问异常", e);
 				logger.error(message.getMessage());
@@ -73,6 +82,38 @@ public class GetterBuilder {
 		}
 	}
 
+	/** 属性唯一标识获取器 */
+	private static class FieldIdGetter extends FieldGetter implements IdGetter {
+
+		private final IdType idType;
+
+		public FieldIdGetter(Field field) {
+			super(field);
+			this.idType = IdType.typeOf(field.getType());
+		}
+
+		@Override
+		public IdType getIdType() {
+			return idType;
+		}
+	}
+
+	/** 方法唯一标识获取器 */
+	private static class MethodIdGetter extends MethodGetter implements IdGetter {
+
+		private final IdType idType;
+
+		public MethodIdGetter(Method method) {
+			super(method);
+			this.idType = IdType.typeOf(method.getReturnType());
+		}
+
+		@Override
+		public IdType getIdType() {
+			return idType;
+		}
+	}
+
 	/**
 	 * 识别信息
 	 * 
@@ -120,19 +161,19 @@ public class GetterBuilder {
 	}
 
 	/**
-	 * 创建指定资源类的唯一标示获取实例
+	 * 创建指定资源类的唯一标示获取实例，标识为 int/long 类型时可通过{@link IdGetter#getIdType()}识别
 	 * 
 	 * @param clz
 	 *            资源类
 	 * @return
 	 */
-	public static Getter createIdGetter(Class<?> clz) {
+	public static IdGetter createIdGetter(Class<?> clz) {
 		IdentityInfo info = new IdentityInfo(clz);
-		Getter identifier = null;
+		IdGetter identifier = null;
 		if (info.isField()) {
-			identifier = new FieldGetter(info.field);
+			identifier = new FieldIdGetter(info.field);
 		} else {
-			identifier = new MethodGetter(info.method);
+			identifier = new MethodIdGetter(info.method);
 		}
 		return identifier;
 	}
@@ -147,6 +188,7 @@ public class GetterBuilder {
 
 		private final String name;
 		private final boolean unique;
+		private final IndexType type;
 		private final Comparator comparator;
 
 		public FieldIndexGetter(Field field) {
@@ -154,6 +196,7 @@ public class GetterBuilder {
 			Index index = field.getAnnotation(Index.class);
 			this.name = index.name();
 			this.unique = index.unique();
+			this.type = checkType(index, field.getType());
 
 			Class<Comparator> clz = (Class<Comparator>) index.comparatorClz();
 			if (!clz.equals(Comparator.class)) {
@@ -177,6 +220,11 @@ public class GetterBuilder {
 			return unique;
 		}
 
+		@Override
+		public IndexType getType() {
+			return type;
+		}
+
 		@Override
 		public Comparator getComparator() {
 			return comparator;
@@ -201,6 +249,7 @@ public class GetterBuilder {
 
 		private final String name;
 		private final boolean unique;
+		private final IndexType type;
 		private final Comparator comparator;
 
 		public MethodIndexGetter(Method method) {
@@ -208,6 +257,7 @@ public class GetterBuilder {
 			Index index = method.getAnnotation(Index.class);
 			this.name = index.name();
 			this.unique = index.unique();
+			this.type = checkType(index, method.getReturnType());
 
 			Class<Comparator> clz = (Class<Comparator>) index.comparatorClz();
 			if (!clz.equals(Comparator.class)) {
@@ -231,6 +281,11 @@ public class GetterBuilder {
 			return unique;
 		}
 
+		@Override
+		public IndexType getType() {
+			return type;
+		}
+
 		@Override
 		public Comparator getComparator() {
 			return comparator;
@@ -245,6 +300,125 @@ public class GetterBuilder {
 		}
 	}
 
+	/**
+	 * 检查索引值类型是否满足索引类型的要求
+	 * 
+	 * @param index
+	 *            索引声明
+	 * @param clz
+	 *            索引值类型
+	 * @return 索引类型
+	 */
+	private static IndexType checkType(Index index, Class<?> clz) {
+		IndexType type = index.type();
+		if (type == IndexType.RANGE && !RANGE_TYPES.contains(clz)) {
+			FormattingTuple message = MessageFormatter.format("区间索引[{}]的值类型[{}]不是整数类型", index.name(), clz);
+			logger.error(message.getMessage());
+			throw new RuntimeException(message.getMessage());
+		}
+		if (type == IndexType.BITMAP && index.unique()) {
+			FormattingTuple message = MessageFormatter.format("位图索引[{}]不能声明为唯一索引", index.name());
+			logger.error(message.getMessage());
+			throw new RuntimeException(message.getMessage());
+		}
+		return type;
+	}
+
+	/**
+	 * 多属性组合索引值获取器
+	 * 
+	 * @author frank
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static class FieldsIndexGetter implements CompositeIndexGetter {
+
+		private final String name;
+		private final boolean unique;
+		private final Comparator comparator;
+		private final String[] names;
+		private final Getter[] fields;
+
+		public FieldsIndexGetter(Class<?> clz, CompositeIndex index) {
+			this.name = index.name();
+			this.unique = index.unique();
+			this.names = index.fields();
+			if (names.length == 0) {
+				FormattingTuple message = MessageFormatter.format("资源类[{}]的组合索引[{}]没有声明属性", clz, name);
+				logger.error(message.getMessage());
+				throw new RuntimeException(message.getMessage());
+			}
+			this.fields = new Getter[names.length];
+			for (int i = 0; i < names.length; i++) {
+				Field field = ReflectionUtils.findField(clz, names[i]);
+				if (field == null) {
+					FormattingTuple message = MessageFormatter.format("资源类[{}]的组合索引[{}]的属性[{}]不存在",
+							new Object[] { clz, name, names[i] });
+					logger.error(message.getMessage());
+					throw new RuntimeException(message.getMessage());
+				}
+				fields[i] = Accessors.getter(field);
+			}
+
+			Class<Comparator> comparatorClz = (Class<Comparator>) index.comparatorClz();
+			if (!comparatorClz.equals(Comparator.class)) {
+				try {
+					this.comparator = Accessors.constructor(comparatorClz).get();
+				} catch (Exception e) {
+					throw new IllegalArgumentException("索引比较器[" + comparatorClz.getName() + "]无法被实例化");
+				}
+			} else {
+				comparator = null;
+			}
+		}
+
+		@Override
+		public Object getValue(Object object) {
+			Object[] values = new Object[fields.length];
+			try {
+				for (int i = 0; i < fields.length; i++) {
+					values[i] = fields[i].getValue(object);
+				}
+			} catch (Exception e) {
+				logger.error("组合索引属性访问异常", e);
+				throw new RuntimeException("组合索引属性访问异常");
+			}
+			return Collections.unmodifiableList(Arrays.asList(values));
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public boolean isUnique() {
+			return unique;
+		}
+
+		@Override
+		public IndexType getType() {
+			return IndexType.EXACT;
+		}
+
+		@Override
+		public Comparator getComparator() {
+			return comparator;
+		}
+
+		@Override
+		public boolean hasComparator() {
+			if (comparator != null) {
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public String[] getFields() {
+			return names.clone();
+		}
+	}
+
 	/**
 	 * 创建资源索引
 	 * 
@@ -264,6 +438,10 @@ public class GetterBuilder {
 			IndexGetter getter = new MethodIndexGetter(method);
 			getters.add(getter);
 		}
+		for (CompositeIndex index : clz.getAnnotationsByType(CompositeIndex.class)) {
+			IndexGetter getter = new FieldsIndexGetter(clz, index);
+			getters.add(getter);
+		}
 
 		Map<String, IndexGetter> result = new HashMap<String, IndexGetter>(getters.size());
 		for (IndexGetter getter : getters) {
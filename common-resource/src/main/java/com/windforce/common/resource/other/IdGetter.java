@@ -0,0 +1,17 @@
+package com.windforce.common.resource.other;
+
+/**
+ * 唯一标识获取器接口
+ * 
+ * @author frank
+ */
+public interface IdGetter extends Getter {
+
+	/**
+	 * 获取唯一标识的类型
+	 * 
+	 * @return
+	 */
+	IdType getIdType();
+
+}
@@ -0,0 +1,34 @@
+package com.windforce.common.resource.other;
+
+/**
+ * 唯一标识类型
+ * 
+ * @author frank
+ */
+public enum IdType {
+
+	/** int 或 {@link Integer} 类型标识 */
+	INT,
+	/** long 或 {@link Long} 类型标识 */
+	LONG,
+	/** 其他类型标识 */
+	OBJECT;
+
+	/**
+	 * 获取指定类型对应的标识类型
+	 * 
+	 * @param clz
+	 *            标识属性或方法返回值的类型
+	 * @return
+	 */
+	public static IdType typeOf(Class<?> clz) {
+		if (clz == int.class || clz == Integer.class) {
+			return INT;
+		}
+		if (clz == long.class || clz == Long.class) {
+			return LONG;
+		}
+		return OBJECT;
+	}
+
+}
@@ -2,6 +2,8 @@ package com.windforce.common.resource.other;
 
 import java.util.Comparator;
 
+import com.windforce.common.resource.anno.IndexType;
+
 /**
  * 索引值获取器接口
  * @author frank
@@ -20,6 +22,12 @@ public interface IndexGetter {
 	 */
 	boolean isUnique();
 
+	/**
+	 * 获取索引类型
+	 * @return
+	 */
+	IndexType getType();
+
 	/**
 	 * 获取索引值
 	 * @param obj 静态资源实例
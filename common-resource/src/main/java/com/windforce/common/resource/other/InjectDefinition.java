@@ -16,6 +16,8 @@ public class InjectDefinition {
 
 	/** 被注入的属性 */
 	private final Field field;
+	/** 属性设置器 */
+	private final Setter setter;
 	/** 注入配置 */
 	private final Inject inject;
 	/** 注入类型 */
@@ -28,9 +30,8 @@ public class InjectDefinition {
 		if (!field.isAnnotationPresent(Inject.class)) {
 			throw new IllegalArgumentException("被注入属性域" + field.getName() + "的注释配置缺失");
 		}
-		field.setAccessible(true);
-		
 		this.field = field;
+		this.setter = Accessors.setter(field);
 		this.inject = field.getAnnotation(Inject.class);
 		if (StringUtils.isEmpty(this.inject.value())) {
 			this.type = InjectType.CLASS;
@@ -62,6 +63,10 @@ public class InjectDefinition {
 		return field;
 	}
 
+	public Setter getSetter() {
+		return setter;
+	}
+
 	public Inject getInject() {
 		return inject;
 	}
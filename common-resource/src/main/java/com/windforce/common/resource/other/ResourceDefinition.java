@@ -47,6 +47,15 @@ public class ResourceDefinition {
 	private final Set<InjectDefinition> injects = new HashSet<InjectDefinition>();
 
 	private String cacheKey;
+
+	/** 是否使用堆外存储 */
+	private final boolean offHeap;
+	/** 堆外存储的解码缓存数量 */
+	private final int decodeCache;
+	/** 是否延迟加载 */
+	private final boolean lazy;
+	/** 是否在加载时对属性值去重 */
+	private final boolean dedup;
 	
 	private List<?> startList;
 
@@ -81,6 +90,10 @@ public class ResourceDefinition {
 		if (!StringUtils.isBlank(anno.cache())) {
 			cacheKey = anno.cache();
 		}
+		this.offHeap = anno.offHeap();
+		this.decodeCache = anno.decodeCache();
+		this.lazy = anno.lazy();
+		this.dedup = anno.dedup();
 		ReflectionUtility.doWithDeclaredFields(clz, new FieldCallback() {
 			@Override
 			public void doWith(Field field) throws IllegalArgumentException, IllegalAccessException {
@@ -145,6 +158,22 @@ public class ResourceDefinition {
 		return cacheKey;
 	}
 
+	public boolean isOffHeap() {
+		return offHeap;
+	}
+
+	public int getDecodeCache() {
+		return decodeCache;
+	}
+
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	public boolean isDedup() {
+		return dedup;
+	}
+
 	public List<?> getStartList() {
 		return startList;
 	}
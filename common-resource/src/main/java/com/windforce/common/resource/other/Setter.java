@@ -0,0 +1,68 @@
+package com.windforce.common.resource.other;
+
+/**
+ * 属性设置接口
+ * 
+ * @author frank
+ */
+public interface Setter {
+
+	/**
+	 * 设置属性值
+	 * 
+	 * @param target
+	 *            资源实例(静态属性时忽略)
+	 * @param value
+	 *            属性值，基本类型的属性使用对应的包装类型
+	 */
+	void setValue(Object target, Object value);
+
+	/**
+	 * 设置 int 类型的属性值(不经过装箱)
+	 * 
+	 * @param target
+	 *            资源实例(静态属性时忽略)
+	 * @param value
+	 *            属性值
+	 * @throws IllegalStateException
+	 *             属性不是 int 类型时抛出
+	 */
+	void setInt(Object target, int value);
+
+	/**
+	 * 设置 long 类型的属性值(不经过装箱)
+	 * 
+	 * @param target
+	 *            资源实例(静态属性时忽略)
+	 * @param value
+	 *            属性值
+	 * @throws IllegalStateException
+	 *             属性不是 long 类型时抛出
+	 */
+	void setLong(Object target, long value);
+
+	/**
+	 * 设置 double 类型的属性值(不经过装箱)
+	 * 
+	 * @param target
+	 *            资源实例(静态属性时忽略)
+	 * @param value
+	 *            属性值
+	 * @throws IllegalStateException
+	 *             属性不是 double 类型时抛出
+	 */
+	void setDouble(Object target, double value);
+
+	/**
+	 * 设置 byte 类型的属性值(不经过装箱)
+	 * 
+	 * @param target
+	 *            资源实例(静态属性时忽略)
+	 * @param value
+	 *            属性值
+	 * @throws IllegalStateException
+	 *             属性不是 byte 类型时抛出
+	 */
+	void setByte(Object target, byte value);
+
+}
@@ -0,0 +1,238 @@
+package com.windforce.common.resource.reader;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.alibaba.fastjson.JSON;
+import com.windforce.common.resource.other.Accessors;
+import com.windforce.common.resource.other.Setter;
+
+/**
+ * 单元格内容到资源属性的转换器
+ * 
+ * <pre>
+ * 转换器在读取属性控制行时按属性类型创建一次，之后每个单元格只需调用一次{@link #set(Object, String)}：
+ * 1.字符串、数值与布尔值直接解析，基本类型不经过装箱
+ * 2.枚举通过预先建立的名称表查找，找不到时不修改属性
+ * 3.列表、映射与其他对象的内容为 JSON，按属性的泛型类型一次解析
+ * </pre>
+ * 
+ * @author frank
+ */
+abstract class ColumnConverter {
+
+	private static final Logger logger = LoggerFactory.getLogger(ColumnConverter.class);
+
+	/** 资源类属性 */
+	protected final Field field;
+	/** 属性设置器 */
+	protected final Setter setter;
+
+	ColumnConverter(Field field) {
+		this.field = field;
+		this.setter = Accessors.setter(field);
+	}
+
+	/**
+	 * 将单元格内容转换后设置到资源实例的属性
+	 * 
+	 * @param instance
+	 *            资源实例
+	 * @param content
+	 *            单元格内容(非空)
+	 * @throws Exception
+	 */
+	abstract void set(Object instance, String content) throws Exception;
+
+	/**
+	 * 创建属性对应的转换器
+	 * 
+	 * @param field
+	 *            资源类属性
+	 * @return
+	 */
+	static ColumnConverter valueOf(Field field) {
+		Class<?> type = field.getType();
+		if (type == String.class) {
+			return new StringConverter(field);
+		}
+		if (type == int.class || type == Integer.class) {
+			return new IntConverter(field);
+		}
+		if (type == double.class || type == Double.class) {
+			return new DoubleConverter(field);
+		}
+		if (type == long.class || type == Long.class) {
+			return new LongConverter(field);
+		}
+		if (type == boolean.class || type == Boolean.class) {
+			return new BooleanConverter(field);
+		}
+		if (type == byte.class || type == Byte.class) {
+			return new ByteConverter(field);
+		}
+		if (type.isEnum()) {
+			return new EnumConverter(field);
+		}
+		return new JsonConverter(field);
+	}
+
+	private static class StringConverter extends ColumnConverter {
+
+		StringConverter(Field field) {
+			super(field);
+		}
+
+		@Override
+		void set(Object instance, String content) throws Exception {
+			setter.setValue(instance, content);
+		}
+	}
+
+	private static class IntConverter extends ColumnConverter {
+
+		private final boolean primitive;
+
+		IntConverter(Field field) {
+			super(field);
+			this.primitive = field.getType().isPrimitive();
+		}
+
+		@Override
+		void set(Object instance, String content) throws Exception {
+			if (primitive) {
+				setter.setInt(instance, Integer.parseInt(content));
+			} else {
+				setter.setValue(instance, Integer.valueOf(content));
+			}
+		}
+	}
+
+	private static class DoubleConverter extends ColumnConverter {
+
+		private final boolean primitive;
+
+		DoubleConverter(Field field) {
+			super(field);
+			this.primitive = field.getType().isPrimitive();
+		}
+
+		@Override
+		void set(Object instance, String content) throws Exception {
+			if (primitive) {
+				setter.setDouble(instance, Double.parseDouble(content));
+			} else {
+				setter.setValue(instance, Double.valueOf(content));
+			}
+		}
+	}
+
+	private static class LongConverter extends ColumnConverter {
+
+		private final boolean primitive;
+
+		LongConverter(Field field) {
+			super(field);
+			this.primitive = field.getType().isPrimitive();
+		}
+
+		@Override
+		void set(Object instance, String content) throws Exception {
+			if (primitive) {
+				setter.setLong(instance, Long.parseLong(content));
+			} else {
+				setter.setValue(instance, Long.valueOf(content));
+			}
+		}
+	}
+
+	private static class BooleanConverter extends ColumnConverter {
+
+		BooleanConverter(Field field) {
+			super(field);
+		}
+
+		@Override
+		void set(Object instance, String content) throws Exception {
+			setter.setValue(instance, Boolean.valueOf(content.toLowerCase()));
+		}
+	}
+
+	private static class ByteConverter extends ColumnConverter {
+
+		private final boolean primitive;
+
+		ByteConverter(Field field) {
+			super(field);
+			this.primitive = field.getType().isPrimitive();
+		}
+
+		@Override
+		void set(Object instance, String content) throws Exception {
+			if (primitive) {
+				setter.setByte(instance, Byte.parseByte(content));
+			} else {
+				setter.setValue(instance, Byte.valueOf(content));
+			}
+		}
+	}
+
+	private static class EnumConverter extends ColumnConverter {
+
+		/** 以{@link Object#toString()}为键的枚举值，相同时后声明的优先 */
+		private final Map<String, Object> values = new HashMap<String, Object>();
+
+		EnumConverter(Field field) {
+			super(field);
+			for (Object e : field.getType().getEnumConstants()) {
+				values.put(e.toString(), e);
+			}
+		}
+
+		@Override
+		void set(Object instance, String content) throws Exception {
+			Object value = values.get(content);
+			if (value != null) {
+				setter.setValue(instance, value);
+			}
+		}
+	}
+
+	/**
+	 * JSON 内容的转换器，内容必须以 [ 或 { 开头
+	 * 
+	 * <pre>
+	 * 按属性的完整泛型类型({@link Field#getGenericType()})一次解析，支持任意键类型的映射与嵌套的泛型
+	 * (例如 List&lt;Map&lt;Integer, Pet&gt;&gt;)，不再先解析为字符串再逐个解析值
+	 * </pre>
+	 * 
+	 * @author frank
+	 */
+	private static class JsonConverter extends ColumnConverter {
+
+		/** 属性的泛型类型 */
+		private final Type type;
+
+		JsonConverter(Field field) {
+			super(field);
+			this.type = field.getGenericType();
+		}
+
+		@Override
+		void set(Object instance, String content) throws Exception {
+			if (!content.startsWith("[") && !content.startsWith("{")) {
+				String message = String.format("没有找到对应的静态资源[%s]属性[%s],属性类型[%s],内容[%s]的转换处理内容!",
+						instance.getClass().getSimpleName(), field.getName(), field.getType().getName(), content);
+				logger.error(message);
+				throw new IllegalStateException(message);
+			}
+			setter.setValue(instance, JSON.parseObject(content, type));
+		}
+	}
+
+}
@@ -2,33 +2,43 @@ package com.windforce.common.resource.reader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.poi.POIXMLDocument;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFReader.SheetIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.FormattingTuple;
 import org.slf4j.helpers.MessageFormatter;
+import org.xml.sax.SAXException;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.TypeReference;
 import com.windforce.common.resource.anno.Id;
-import com.windforce.common.utility.JsonUtils;
-import com.windforce.common.utility.ReflectionUtility;
+import com.windforce.common.resource.other.Accessors;
 
 /**
  * excel类型转换器
@@ -44,10 +54,21 @@ public class ExcelReader implements ResourceReader {
 	private final static String ROW_SERVER = "SERVER";
 	/** 结束标识 */
 	private final static String ROW_END = "END";
+	/** 转换流水线每批的行数 */
+	private final static int CHUNK_SIZE = 256;
 
 	// private final static TypeDescriptor sourceType =
 	// TypeDescriptor.valueOf(String.class);
 
+	/** 是否使用流式方式读取 xlsx 文件 */
+	private boolean streaming = true;
+	/** 并行解析工作表与转换数据行的线程数，不大于 1 时在调用线程中依次处理 */
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	/** 并行解析工作表的线程池，首次使用时创建 */
+	private ForkJoinPool pool;
+	/** 资源类与属性控制行(列号对应的属性名)对应的属性信息 */
+	private final ConcurrentMap<List<Object>, List<FieldInfo>> plans = new ConcurrentHashMap<List<Object>, List<FieldInfo>>();
+
 	@Override
 	public String getFormat() {
 		return "excel";
@@ -63,17 +84,30 @@ public class ExcelReader implements ResourceReader {
 		public final int index;
 		/** 资源类属性 */
 		public final Field field;
+		/** 是否为标识属性 */
+		public final boolean id;
+		/** 单元格内容的转换器 */
+		public final ColumnConverter converter;
 
 		/** 构造方法 */
 		public FieldInfo(int index, Field field) {
-			ReflectionUtility.makeAccessible(field);
 			this.index = index;
 			this.field = field;
+			this.id = field.isAnnotationPresent(Id.class);
+			this.converter = ColumnConverter.valueOf(field);
 		}
 	}
 
 	@Override
 	public <E> List<E> read(InputStream input, Class<E> clz) {
+		if (streaming) {
+			PushbackInputStream in = new PushbackInputStream(input, 8);
+			if (isOOXML(in, clz)) {
+				return readStream(in, clz);
+			}
+			input = in;
+		}
+
 		// 基本信息获取
 		Workbook wb = getWorkbook(input, clz);
 		Sheet[] sheets = getSheets(wb, clz);
@@ -82,6 +116,7 @@ public class ExcelReader implements ResourceReader {
 		ArrayList<E> result = new ArrayList<E>();
 		for (Sheet sheet : sheets) {
 			Collection<FieldInfo> infos = getCellInfos(sheet, clz);
+			RowPipeline<E> pipeline = new RowPipeline<E>(clz, infos);
 			boolean start = false;
 			for (Row row : sheet) {
 				// 判断数据行开始没有
@@ -99,141 +134,51 @@ public class ExcelReader implements ResourceReader {
 					}
 					continue;
 				}
-				// 生成返回对象
-				E instance = newInstance(clz);
-				boolean end = false;
+				// 提取单元格内容，由流水线生成返回对象
+				int length = Math.max(row.getLastCellNum(), 0);
+				String[] cells = new String[length];
+				getRowContent(row, 0, cells);
 				for (FieldInfo info : infos) {
-					Cell cell = row.getCell(info.index);
-					if (cell == null) {
-						continue;
-					}
-					String content = getCellContent(cell);
-
-					if (StringUtils.isEmpty(content) && info.field.isAnnotationPresent(Id.class)) {
-						end = true;
-						break;
-					}
-					if (StringUtils.isEmpty(content)) {
-						continue;
-					}
-					setValue(instance, info.field, content);
-				}
-				if (end) {
-					break;
-				}
-				result.add(instance);
-
-				// 结束处理
-				Cell cell = row.getCell(0);
-				if (cell == null) {
-					continue;
-				}
-				String content = getCellContent(cell);
-				if (content == null) {
-					continue;
+					getRowContent(row, info.index, cells);
 				}
-				if (content.equals(ROW_END)) {
+				if (!pipeline.add(cells, length)) {
 					break;
 				}
 			}
+			pipeline.finish(result);
 		}
 		return result;
 	}
 
-	private void setValue(Object instance, Field field, String content) {
-		try {
-
-			if (field.getType() == String.class) {
-				field.set(instance, content);
-				return;
-			}
-			if (field.getType() == int.class || field.getType() == Integer.class) {
-				field.set(instance, Integer.valueOf(content));
-				return;
-			}
-			if (field.getType() == double.class || field.getType() == Double.class) {
-				field.set(instance, Double.valueOf(content));
-				return;
-			}
-			if (field.getType() == long.class || field.getType() == Long.class) {
-				field.set(instance, Long.valueOf(content));
-				return;
-			}
-			if (field.getType() == boolean.class || field.getType() == Boolean.class) {
-				field.set(instance, Boolean.valueOf(content.toLowerCase()));
-				return;
-			}
-			if (field.getType() == byte.class || field.getType() == Byte.class) {
-				field.set(instance, Byte.valueOf(content));
-				return;
-			}
-
-			if (field.getType().isEnum()) {
-				for (Object e : field.getType().getEnumConstants()) {
-					if (e.toString().equals(content)) {
-						field.set(instance, e);
-					}
-				}
-				return;
-			}
-			if (content.startsWith("[") || content.startsWith("{")) {
-				// lis对象
-				if (field.getType() == java.util.List.class) {
-					Class<?>[] clazzs = getParameterizedType(field);
-					List<?> list = JsonUtils.string2List(content, clazzs[0]);
-					field.set(instance, list);
-					return;
-				}
-
-				// Map对象
-				if (field.getType() == java.util.Map.class) {
-					Class<?>[] clazzs = getParameterizedType(field);
-					Map<Object, Object> newMap = new HashMap<>();
-					if (clazzs[0] == Integer.class) {
-						TypeReference<Map<Integer, String>> mapType = new TypeReference<Map<Integer, String>>() {
-						};
-						Map<Integer, String> map = JSON.parseObject(content, mapType);
-						for (Entry<Integer, String> entry : map.entrySet()) {
-							Object key = null;
-							key = Integer.valueOf(entry.getKey());
-							Object value = JsonUtils.string2Object(entry.getValue(), clazzs[1]);
-							newMap.put(key, value);
-						}
-					} else if (clazzs[0] == String.class) {
-						TypeReference<Map<String, String>> mapType = new TypeReference<Map<String, String>>() {
-						};
-						Map<String, String> map = JSON.parseObject(content, mapType);
-						for (Entry<String, String> entry : map.entrySet()) {
-							Object key = null;
-							key = String.valueOf(entry.getKey());
-							Object value = JsonUtils.string2Object(entry.getValue(), clazzs[1]);
-							newMap.put(key, value);
-						}
-					} else {
-						String message = String.format("静态资源[%s]属性[%s],属性类型[%s],Map中key的值必须为Integer或者String!",
-								instance.getClass().getSimpleName(), field.getName(), field.getType().getName());
-						logger.error(message);
-						throw new IllegalStateException(message);
-					}
-					field.set(instance, newMap);
-					return;
-				}
-
-				// 对象
-				Object object = JsonUtils.string2Object(content, field.getType());
-				field.set(instance, object);
-				return;
-			}
-
-			String message = String.format("没有找到对应的静态资源[%s]属性[%s],属性类型[%s],内容[%s]的转换处理内容!",
-					instance.getClass().getSimpleName(), field.getName(), field.getType().getName(), content);
-			logger.error(message);
-			throw new IllegalStateException(message);
+	/**
+	 * 获取行中指定列的内容，存在但没有内容的单元格为空字符串
+	 * 
+	 * @param row
+	 * @param index
+	 * @param cells
+	 */
+	private void getRowContent(Row row, int index, String[] cells) {
+		if (index >= cells.length) {
+			return;
+		}
+		Cell cell = row.getCell(index);
+		if (cell == null) {
+			return;
+		}
+		String content = getCellContent(cell);
+		cells[index] = content == null ? "" : content;
+	}
 
+	/**
+	 * 设置属性值，转换失败的异常由{@link RowPipeline#finish(List)}统一记录
+	 */
+	private void setValue(Object instance, FieldInfo info, String content) {
+		try {
+			info.converter.set(instance, content);
 		} catch (Exception e) {
+			Field field = info.field;
 			String message = String.format("静态资源[%s]属性[%s],属性类型[%s],内容[%s]的转换失败!", instance.getClass().getSimpleName(),
 					field.getName(), field.getType().getName(), content);
-			logger.error(message, e);
 			throw new IllegalStateException(message, e);
 		}
 	}
@@ -307,18 +252,19 @@ public class ExcelReader implements ResourceReader {
 	*/
 
 	/**
-	 * 实例化资源
+	 * 实例化资源，失败的异常由{@link RowPipeline#finish(List)}统一记录
 	 * 
 	 * @param <E>
+	 * @param constructor
+	 *            实例创建器
 	 * @param clz
 	 * @return
 	 */
-	private <E> E newInstance(Class<E> clz) {
+	private <E> E newInstance(Supplier<E> constructor, Class<E> clz) {
 		try {
-			return clz.newInstance();
+			return constructor.get();
 		} catch (Exception e) {
 			FormattingTuple message = MessageFormatter.format("资源[{}]无法实例化", clz);
-			logger.error(message.getMessage());
 			throw new RuntimeException(message.getMessage());
 		}
 	}
@@ -340,29 +286,67 @@ public class ExcelReader implements ResourceReader {
 		}
 
 		// 获取属性信息集合
-		List<FieldInfo> result = new ArrayList<FieldInfo>();
-		for (int i = 1; i < fieldRow.getLastCellNum(); i++) {
+		int length = Math.max(fieldRow.getLastCellNum(), 0);
+		String[] names = new String[length];
+		for (int i = 1; i < length; i++) {
 			Cell cell = fieldRow.getCell(i);
-			if (cell == null) {
-				continue;
+			if (cell != null) {
+				names[i] = getCellContent(cell);
 			}
+		}
+		return getFieldInfos(clz, names, length);
+	}
+
+	/**
+	 * 获取属性控制行对应的属性信息，相同资源类与属性控制行的结果会被缓存
+	 * 
+	 * @param clz
+	 * @param names
+	 *            以列号为下标的属性控制行内容
+	 * @param length
+	 *            有效长度
+	 * @return
+	 */
+	private List<FieldInfo> getFieldInfos(Class<?> clz, String[] names, int length) {
+		List<Object> key = new ArrayList<Object>(length);
+		key.add(clz);
+		for (int i = 1; i < length; i++) {
+			key.add(StringUtils.isBlank(names[i]) ? null : names[i]);
+		}
+		List<FieldInfo> result = plans.get(key);
+		if (result != null) {
+			return result;
+		}
 
-			String name = getCellContent(cell);
-			if (StringUtils.isBlank(name)) {
+		result = new ArrayList<FieldInfo>();
+		for (int i = 1; i < length; i++) {
+			if (StringUtils.isBlank(names[i])) {
 				continue;
 			}
+			result.add(getFieldInfo(clz, i, names[i]));
+		}
+		result = Collections.unmodifiableList(result);
+		List<FieldInfo> prev = plans.putIfAbsent(key, result);
+		return prev == null ? result : prev;
+	}
 
-			try {
-				Field field = clz.getDeclaredField(name);
-				FieldInfo info = new FieldInfo(i, field);
-				result.add(info);
-			} catch (Exception e) {
-				FormattingTuple message = MessageFormatter.format("资源类[{}]的声明属性[{}]无法获取", clz, name);
-				logger.error(message.getMessage());
-				throw new IllegalStateException(message.getMessage(), e);
-			}
+	/**
+	 * 获取属性控制行中指定列的属性信息
+	 * 
+	 * @param clz
+	 * @param index
+	 * @param name
+	 * @return
+	 */
+	private FieldInfo getFieldInfo(Class<?> clz, int index, String name) {
+		try {
+			Field field = clz.getDeclaredField(name);
+			return new FieldInfo(index, field);
+		} catch (Exception e) {
+			FormattingTuple message = MessageFormatter.format("资源类[{}]的声明属性[{}]无法获取", clz, name);
+			logger.error(message.getMessage());
+			throw new IllegalStateException(message.getMessage(), e);
 		}
-		return result;
 	}
 
 	/**
@@ -452,4 +436,469 @@ public class ExcelReader implements ResourceReader {
 		}
 	}
 
+	/**
+	 * 检查输入流是否为 xlsx 格式(不会消耗输入流的内容)
+	 * 
+	 * @param input
+	 * @param clz
+	 * @return
+	 */
+	private boolean isOOXML(PushbackInputStream input, Class<?> clz) {
+		try {
+			return POIXMLDocument.hasOOXMLHeader(input);
+		} catch (IOException e) {
+			throw new RuntimeException("静态资源[" + clz.getSimpleName() + "]异常,无法读取文件", e);
+		}
+	}
+
+	/**
+	 * 使用 SAX 方式读取 xlsx 文件，不创建完整的工作簿对象
+	 * 
+	 * <pre>
+	 * 工作表的选择与{@link #getSheets(Workbook, Class)}一致：
+	 * 1.首行首列为资源类名且不止一行的工作表按顺序合并
+	 * 2.没有需要合并的工作表时，使用与资源类名同名(不区分大小写)的工作表，不存在时使用第一个工作表
+	 * 多个工作表并行解析，结果按工作表的顺序合并，多个工作表解析失败时抛出顺序在前的工作表的异常
+	 * </pre>
+	 * 
+	 * @param input
+	 * @param clz
+	 * @return
+	 */
+	private <E> List<E> readStream(InputStream input, Class<E> clz) {
+		OPCPackage pkg;
+		try {
+			pkg = OPCPackage.open(input);
+		} catch (InvalidFormatException e) {
+			throw new RuntimeException("静态资源[" + clz.getSimpleName() + "]异常,无效的文件格式", e);
+		} catch (IOException e) {
+			throw new RuntimeException("静态资源[" + clz.getSimpleName() + "]异常,无法读取文件", e);
+		}
+		try {
+			XSSFReader reader = new XSSFReader(pkg);
+			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+			String name = clz.getSimpleName();
+
+			// 处理多Sheet数据合并
+			List<SheetDecoder<E>> decoders = new ArrayList<SheetDecoder<E>>();
+			List<InputStream> sheets = new ArrayList<InputStream>();
+			boolean named = false;
+			SheetIterator it = (SheetIterator) reader.getSheetsData();
+			while (it.hasNext()) {
+				sheets.add(it.next());
+				decoders.add(new SheetDecoder<E>(strings, clz, name));
+				named |= name.equalsIgnoreCase(it.getSheetName());
+			}
+			decode(decoders, sheets);
+			ArrayList<E> result = null;
+			for (SheetDecoder<E> decoder : decoders) {
+				if (!decoder.isMerged()) {
+					continue;
+				}
+				if (result == null) {
+					result = decoder.getResult();
+				} else {
+					result.addAll(decoder.getResult());
+				}
+			}
+			if (result != null) {
+				return result;
+			}
+
+			// 没有需要多Sheet合并的情况
+			it = (SheetIterator) reader.getSheetsData();
+			while (it.hasNext()) {
+				InputStream sheet = it.next();
+				if (!named || name.equalsIgnoreCase(it.getSheetName())) {
+					SheetDecoder<E> decoder = new SheetDecoder<E>(strings, clz, null);
+					decode(Collections.singletonList(decoder), Collections.singletonList(sheet));
+					return decoder.getResult();
+				}
+				sheet.close();
+			}
+			throw new IllegalArgumentException("无法获取资源类[" + clz.getSimpleName() + "]对应的Excel数据表");
+		} catch (IOException e) {
+			throw new RuntimeException("静态资源[" + clz.getSimpleName() + "]异常,无法读取文件", e);
+		} catch (SAXException e) {
+			throw new RuntimeException("静态资源[" + clz.getSimpleName() + "]异常,无效的文件格式", e);
+		} catch (OpenXML4JException e) {
+			throw new RuntimeException("静态资源[" + clz.getSimpleName() + "]异常,无效的文件格式", e);
+		} finally {
+			pkg.revert();
+		}
+	}
+
+	/**
+	 * 解析工作表，工作表不止一个时使用线程池并行解析
+	 * 
+	 * @param decoders
+	 *            与工作表一一对应的转换器
+	 * @param sheets
+	 *            工作表内容，解析结束后关闭
+	 * @throws IOException
+	 * @throws SAXException
+	 */
+	private <E> void decode(List<SheetDecoder<E>> decoders, List<InputStream> sheets) throws IOException,
+			SAXException {
+		if (sheets.size() <= 1 || parallelism <= 1) {
+			for (int i = 0; i < sheets.size(); i++) {
+				decoders.get(i).decode(sheets.get(i));
+			}
+		} else {
+			ForkJoinPool pool = getPool();
+			List<ForkJoinTask<Void>> tasks = new ArrayList<ForkJoinTask<Void>>(sheets.size());
+			for (int i = 0; i < sheets.size(); i++) {
+				final SheetDecoder<E> decoder = decoders.get(i);
+				final InputStream sheet = sheets.get(i);
+				tasks.add(pool.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						decoder.decodeQuietly(sheet);
+						return null;
+					}
+				}));
+			}
+			for (ForkJoinTask<Void> task : tasks) {
+				task.quietlyJoin();
+			}
+		}
+
+		// 按工作表的顺序检查，顺序在前的工作表的异常优先
+		for (SheetDecoder<E> decoder : decoders) {
+			Throwable error = decoder.getError();
+			if (error == null) {
+				continue;
+			}
+			if (error instanceof IOException) {
+				throw (IOException) error;
+			}
+			if (error instanceof SAXException) {
+				throw (SAXException) error;
+			}
+			if (error instanceof RuntimeException) {
+				throw (RuntimeException) error;
+			}
+			if (error instanceof Error) {
+				throw (Error) error;
+			}
+			throw new IllegalStateException(error);
+		}
+	}
+
+	private synchronized ForkJoinPool getPool() {
+		if (pool == null) {
+			pool = new ForkJoinPool(parallelism);
+		}
+		return pool;
+	}
+
+	/**
+	 * 将工作表的数据行直接转换为资源实例
+	 * 
+	 * @author frank
+	 */
+	private class SheetDecoder<E> extends XlsxSheetHandler {
+
+		/** 资源类 */
+		private final Class<E> clz;
+		/** 多Sheet合并标识(首行首列的内容)，为 null 时不检查 */
+		private final String marker;
+		/** 转换结果 */
+		private final ArrayList<E> result = new ArrayList<E>();
+		/** 解析过程中出现的异常 */
+		private Throwable error;
+		/** 转换流水线，读取到属性控制行前为 null */
+		private RowPipeline<E> pipeline;
+		/** 首行是否为合并标识 */
+		private boolean marked;
+		/** 是否为需要合并的工作表 */
+		private boolean merged;
+
+		public SheetDecoder(ReadOnlySharedStringsTable strings, Class<E> clz, String marker) {
+			super(strings);
+			this.clz = clz;
+			this.marker = marker;
+		}
+
+		/**
+		 * 解析工作表并关闭输入流
+		 * 
+		 * @param sheet
+		 * @throws IOException
+		 * @throws SAXException
+		 */
+		public void decode(InputStream sheet) throws IOException, SAXException {
+			try {
+				parse(sheet);
+			} finally {
+				sheet.close();
+				// 已提取的行在解析异常的位置之前，其转换异常优先抛出
+				if (pipeline != null) {
+					pipeline.finish(result);
+				}
+			}
+		}
+
+		/**
+		 * 解析工作表并关闭输入流，异常通过{@link #getError()}获取
+		 * 
+		 * @param sheet
+		 */
+		public void decodeQuietly(InputStream sheet) {
+			try {
+				decode(sheet);
+			} catch (Throwable e) {
+				error = e;
+			}
+		}
+
+		public boolean isMerged() {
+			return merged;
+		}
+
+		public ArrayList<E> getResult() {
+			return result;
+		}
+
+		public Throwable getError() {
+			return error;
+		}
+
+		@Override
+		protected void row(int index, String[] cells, int length) throws SAXException {
+			if (marker != null) {
+				if (!marked) {
+					if (index != 0 || length == 0 || !marker.equals(cells[0])) {
+						stop();
+					}
+					marked = true;
+					return;
+				}
+				merged = true;
+			}
+
+			// 判断数据行开始没有
+			if (pipeline == null) {
+				if (length > 0 && ROW_SERVER.equals(cells[0])) {
+					pipeline = new RowPipeline<E>(clz, getFieldInfos(clz, cells, length));
+				}
+				return;
+			}
+
+			// 提取单元格内容，由流水线生成返回对象
+			if (!pipeline.add(cells, length)) {
+				stop();
+			}
+		}
+
+		@Override
+		public void endDocument() {
+			if ((marker == null || merged) && pipeline == null) {
+				FormattingTuple message = MessageFormatter.format("无法获取资源[{}]的EXCEL文件的属性控制列", clz);
+				logger.error(message.getMessage());
+				throw new IllegalStateException(message.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * 资源实例的两阶段转换流水线
+	 * 
+	 * <pre>
+	 * 第一阶段在读取线程中提取数据行的属性列内容，按批存放在连续的数组中，同时完成数据结束的判断
+	 * 第二阶段将每批内容转换为资源实例，并行度大于 1 时提交到线程池，与第一阶段同时进行
+	 * 转换结果按行的顺序合并，多行转换失败时抛出顺序最前的行的异常
+	 * </pre>
+	 * 
+	 * @author frank
+	 */
+	private class RowPipeline<E> {
+
+		/** 资源类 */
+		private final Class<E> clz;
+		/** 实例创建器 */
+		private final Supplier<E> constructor;
+		/** 属性信息 */
+		private final FieldInfo[] infos;
+		/** 已提交的批次 */
+		private final List<RowChunk<E>> chunks = new ArrayList<RowChunk<E>>();
+		/** 正在填充的批次 */
+		private RowChunk<E> current;
+		/** 是否已有批次转换失败 */
+		private volatile boolean failed;
+
+		public RowPipeline(Class<E> clz, Collection<FieldInfo> infos) {
+			this.clz = clz;
+			this.constructor = Accessors.constructor(clz);
+			this.infos = infos.toArray(new FieldInfo[infos.size()]);
+		}
+
+		/**
+		 * 提取数据行的属性列内容
+		 * 
+		 * @param cells
+		 *            以列号为下标的单元格内容，不存在的单元格为 null
+		 * @param length
+		 *            单元格数组的有效长度
+		 * @return 是否需要继续读取后续的行
+		 */
+		public boolean add(String[] cells, int length) {
+			if (current == null) {
+				current = new RowChunk<E>(this);
+			}
+			int offset = current.next();
+			for (int i = 0; i < infos.length; i++) {
+				FieldInfo info = infos[i];
+				String content = info.index < length ? cells[info.index] : null;
+				if (info.id && content != null && content.isEmpty()) {
+					// 标识为空的行表示数据结束，其之前的列仍然转换(保持原有的异常)，但不计入结果
+					current.discard();
+					return false;
+				}
+				current.contents[offset + i] = content;
+			}
+			if (length > 0 && ROW_END.equals(cells[0])) {
+				return false;
+			}
+			if (current.isFull()) {
+				submit(current);
+				current = null;
+			}
+			return !failed;
+		}
+
+		/**
+		 * 等待全部批次转换结束，按行的顺序将转换结果添加到结果集，只记录并抛出顺序最前的转换异常
+		 * 
+		 * @param result
+		 */
+		public void finish(List<E> result) {
+			if (current != null) {
+				chunks.add(current);
+				current.invoke();
+				current = null;
+			}
+			for (RowChunk<E> chunk : chunks) {
+				chunk.join();
+				if (chunk.error != null) {
+					logger.error(chunk.error.getMessage(), chunk.error.getCause());
+					throw chunk.error;
+				}
+				result.addAll(chunk.result);
+			}
+			chunks.clear();
+		}
+
+		private void submit(RowChunk<E> chunk) {
+			chunks.add(chunk);
+			if (parallelism <= 1) {
+				chunk.invoke();
+				return;
+			}
+			ForkJoinPool pool = getPool();
+			if (ForkJoinTask.getPool() == pool) {
+				chunk.fork();
+			} else {
+				pool.execute(chunk);
+			}
+		}
+	}
+
+	/**
+	 * 待转换的一批数据行
+	 * 
+	 * @author frank
+	 */
+	@SuppressWarnings("serial")
+	private class RowChunk<E> extends RecursiveAction {
+
+		/** 所属流水线 */
+		private final RowPipeline<E> pipeline;
+		/** 按行连续存放的属性列内容，转换结束后释放 */
+		private String[] contents;
+		/** 行数 */
+		private int rows;
+		/** 最后一行是否只转换不计入结果 */
+		private boolean discard;
+		/** 转换结果 */
+		private List<E> result;
+		/** 转换异常 */
+		private RuntimeException error;
+
+		public RowChunk(RowPipeline<E> pipeline) {
+			this.pipeline = pipeline;
+			this.contents = new String[CHUNK_SIZE * pipeline.infos.length];
+		}
+
+		/** 添加一行，返回该行内容的起始位置 */
+		public int next() {
+			return rows++ * pipeline.infos.length;
+		}
+
+		public boolean isFull() {
+			return rows == CHUNK_SIZE;
+		}
+
+		public void discard() {
+			discard = true;
+		}
+
+		@Override
+		protected void compute() {
+			FieldInfo[] infos = pipeline.infos;
+			List<E> list = new ArrayList<E>(rows);
+			try {
+				for (int row = 0; row < rows; row++) {
+					E instance = newInstance(pipeline.constructor, pipeline.clz);
+					int offset = row * infos.length;
+					for (int i = 0; i < infos.length; i++) {
+						String content = contents[offset + i];
+						if (StringUtils.isEmpty(content)) {
+							continue;
+						}
+						setValue(instance, infos[i], content);
+					}
+					if (!discard || row < rows - 1) {
+						list.add(instance);
+					}
+				}
+			} catch (RuntimeException e) {
+				error = e;
+				pipeline.failed = true;
+			} finally {
+				// 转换结果在全部批次结束前一直保留，原始内容不需要同时保留
+				contents = null;
+			}
+			result = list;
+		}
+	}
+
+	// Getter and Setter ...
+
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * 设置是否使用流式方式读取 xlsx 文件，关闭时使用完整的工作簿对象读取
+	 * 
+	 * @param streaming
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * 设置并行解析工作表的线程数，需要在首次读取前设置
+	 * 
+	 * @param parallelism
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
 }
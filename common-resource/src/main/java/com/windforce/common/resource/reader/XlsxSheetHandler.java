@@ -0,0 +1,199 @@
+package com.windforce.common.resource.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * xlsx 工作表的 SAX 解析器
+ * 
+ * <pre>
+ * 只解析单元格的位置与内容，每解析完一行回调一次{@link #row(int, String[], int)}，不创建 POI 的行与单元格对象
+ * 单元格内容与 POI 将单元格转换为字符串类型后的内容一致：数值与公式为缓存的原始文本，布尔值为 TRUE 或 FALSE
+ * 不存在的单元格为 null，存在但没有内容的单元格为空字符串
+ * </pre>
+ * 
+ * @author frank
+ */
+abstract class XlsxSheetHandler extends DefaultHandler {
+
+	/** 共享字符串表 */
+	private final ReadOnlySharedStringsTable strings;
+
+	/** 当前行的单元格内容，每行解析结束后复用 */
+	private String[] cells = new String[16];
+	/** 当前行的单元格数组长度(最后一个单元格的列号 + 1) */
+	private int length;
+	/** 当前行号(从 0 开始) */
+	private int row = -1;
+	/** 当前列号(从 0 开始) */
+	private int column = -1;
+	/** 当前单元格类型 */
+	private String type;
+	/** 是否在单元格值元素内 */
+	private boolean inValue;
+	/** 是否在内联字符串内 */
+	private boolean inInline;
+	/** 是否在内联字符串的文本元素内 */
+	private boolean inText;
+	/** 是否在注音元素内 */
+	private boolean inPhonetic;
+	/** 当前单元格的文本 */
+	private final StringBuilder text = new StringBuilder();
+
+	XlsxSheetHandler(ReadOnlySharedStringsTable strings) {
+		this.strings = strings;
+	}
+
+	/**
+	 * 解析工作表，{@link #stop()}中止解析时正常返回
+	 * 
+	 * @param input
+	 *            工作表的 XML 内容
+	 * @throws IOException
+	 * @throws SAXException
+	 */
+	void parse(InputStream input) throws IOException, SAXException {
+		XMLReader reader;
+		try {
+			SAXParserFactory factory = SAXParserFactory.newInstance();
+			factory.setNamespaceAware(true);
+			reader = factory.newSAXParser().getXMLReader();
+		} catch (ParserConfigurationException e) {
+			throw new SAXException("无法创建 SAX 解析器", e);
+		}
+		reader.setContentHandler(this);
+		try {
+			reader.parse(new InputSource(input));
+		} catch (StopParsing e) {
+			// 已经读取到需要的内容
+		}
+	}
+
+	/**
+	 * 处理解析完成的一行
+	 * 
+	 * @param index
+	 *            行号(从 0 开始)
+	 * @param cells
+	 *            单元格内容，数组会被下一行复用
+	 * @param length
+	 *            单元格数组的有效长度
+	 * @throws SAXException
+	 */
+	protected abstract void row(int index, String[] cells, int length) throws SAXException;
+
+	/**
+	 * 中止解析，不再处理后续的行
+	 * 
+	 * @throws SAXException
+	 */
+	protected void stop() throws SAXException {
+		throw new StopParsing();
+	}
+
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attributes) {
+		if ("c".equals(localName)) {
+			String ref = attributes.getValue("r");
+			column = ref == null ? column + 1 : columnOf(ref);
+			type = attributes.getValue("t");
+			text.setLength(0);
+		} else if ("v".equals(localName)) {
+			inValue = true;
+		} else if ("is".equals(localName)) {
+			inInline = true;
+		} else if ("t".equals(localName)) {
+			inText = inInline && !inPhonetic;
+		} else if ("rPh".equals(localName)) {
+			inPhonetic = true;
+		} else if ("row".equals(localName)) {
+			String ref = attributes.getValue("r");
+			row = ref == null ? row + 1 : Integer.parseInt(ref) - 1;
+			column = -1;
+		}
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		if ("c".equals(localName)) {
+			if (column >= cells.length) {
+				cells = Arrays.copyOf(cells, Math.max(column + 1, cells.length << 1));
+			}
+			cells[column] = content();
+			length = Math.max(length, column + 1);
+		} else if ("v".equals(localName)) {
+			inValue = false;
+		} else if ("is".equals(localName)) {
+			inInline = false;
+		} else if ("t".equals(localName)) {
+			inText = false;
+		} else if ("rPh".equals(localName)) {
+			inPhonetic = false;
+		} else if ("row".equals(localName)) {
+			try {
+				row(row, cells, length);
+			} finally {
+				Arrays.fill(cells, 0, length, null);
+				length = 0;
+			}
+		}
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) {
+		if (inValue || inText) {
+			text.append(ch, start, length);
+		}
+	}
+
+	/** 当前单元格的字符串内容 */
+	private String content() {
+		String value = text.toString();
+		if ("s".equals(type)) {
+			return value.isEmpty() ? value : strings.getEntryAt(Integer.parseInt(value));
+		}
+		if ("b".equals(type)) {
+			return "1".equals(value) ? "TRUE" : "FALSE";
+		}
+		return value;
+	}
+
+	/** 单元格引用(例如 AB12)对应的列号 */
+	private static int columnOf(String ref) {
+		int result = 0;
+		for (int i = 0; i < ref.length(); i++) {
+			char c = ref.charAt(i);
+			if (c < 'A' || c > 'Z') {
+				break;
+			}
+			result = result * 26 + (c - 'A' + 1);
+		}
+		return result - 1;
+	}
+
+	/**
+	 * 中止解析的标记异常
+	 * 
+	 * @author frank
+	 */
+	@SuppressWarnings("serial")
+	private static class StopParsing extends SAXException {
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+	}
+
+}
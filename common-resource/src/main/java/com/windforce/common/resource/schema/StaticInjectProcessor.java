@@ -85,10 +85,10 @@ public class StaticInjectProcessor extends InstantiationAwareBeanPostProcessorAd
 		Object key = conversionService.convert(anno.value(), clz);
 
 		// 添加监听器
-		@SuppressWarnings("rawtypes")
-		Storage storage = manager.getStorage(field.getType());
+		@SuppressWarnings("unchecked")
+		Storage<Object, Object> storage = (Storage<Object, Object>) manager.getStorage(field.getType());
 		StaticObserver observer = new StaticObserver(bean, field, anno, key);
-		storage.addObserver(observer);
+		storage.addListener(observer);
 
 		@SuppressWarnings("unchecked")
 		Object instance = storage.get(key, false);
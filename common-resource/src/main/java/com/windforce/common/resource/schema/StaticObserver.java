@@ -10,15 +10,21 @@ import org.slf4j.helpers.FormattingTuple;
 import org.slf4j.helpers.MessageFormatter;
 
 import com.windforce.common.resource.Storage;
+import com.windforce.common.resource.StorageChange;
+import com.windforce.common.resource.StorageListener;
 import com.windforce.common.resource.anno.Static;
 
 /**
  * 静态资源变更观察者
  * 
+ * <pre>
+ * 作为{@link StorageListener}注册时只在注入的资源实例发生变更时重新注入
+ * </pre>
+ * 
  * @author frank
  */
 @SuppressWarnings("rawtypes")
-public class StaticObserver implements Observer {
+public class StaticObserver implements Observer, StorageListener<Object, Object> {
 
 	private final static Logger logger = LoggerFactory.getLogger(StaticObserver.class);
 
@@ -36,6 +42,15 @@ public class StaticObserver implements Observer {
 		inject((Storage) o);
 	}
 
+	/** 接收变更通知，只处理注入的资源实例 */
+	@Override
+	public void onChange(StorageChange<Object, Object> change) {
+		if (!change.isChanged(key)) {
+			return;
+		}
+		inject(change.getStorage());
+	}
+
 	/** 注入资源实例 */
 	private void inject(Storage o) {
 		@SuppressWarnings("unchecked")
@@ -0,0 +1,90 @@
+package com.windforce.common.resource.store;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.windforce.common.resource.other.IdType;
+
+/**
+ * 连续整数标识的数组主存储结构
+ * 
+ * <pre>
+ * 标识集合足够稠密时(如 1..5000 的等级表)，直接以 (标识 - 最小标识) 作为数组下标定位资源实例，
+ * 查询只需一次范围判断和一次数组访问
+ * </pre>
+ * 
+ * @author frank
+ */
+public class ArrayValueStore<K, V> implements ValueStore<K, V> {
+
+	/** 标识类型 */
+	private final IdType type;
+	/** 最小标识 */
+	private final long base;
+	/** 资源实例槽位，null 表示该标识不存在 */
+	private final Object[] slots;
+	/** 全部资源实例 */
+	private final Collection<V> values;
+
+	@SuppressWarnings("unchecked")
+	public ArrayValueStore(IdType type, long min, long max, Map<K, V> values) {
+		this.type = type;
+		this.base = min;
+		this.slots = new Object[(int) (max - min + 1)];
+		for (Entry<K, V> entry : values.entrySet()) {
+			long key = ((Number) entry.getKey()).longValue();
+			slots[(int) (key - base)] = entry.getValue();
+		}
+		this.values = Collections.unmodifiableList(Arrays.asList((V[]) values.values().toArray()));
+	}
+
+	@Override
+	public V get(Object key) {
+		if (type == IdType.INT && key instanceof Integer) {
+			return get(((Integer) key).longValue());
+		}
+		if (type == IdType.LONG && key instanceof Long) {
+			return get(((Long) key).longValue());
+		}
+		return null;
+	}
+
+	@Override
+	public V get(int key) {
+		return get((long) key);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		long offset = key - base;
+		if (offset < 0 || offset >= slots.length) {
+			return null;
+		}
+		return (V) slots[(int) offset];
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Collection<V> values() {
+		return values;
+	}
+
+	@Override
+	public int size() {
+		return values.size();
+	}
+
+	@Override
+	public StoreLayout getLayout() {
+		return StoreLayout.ARRAY;
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.windforce.common.resource.store;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * 组合索引的开放寻址表
+ * 
+ * <pre>
+ * 以各组成部分的值直接计算散列并逐个比较，查询时不需要创建组合键对象
+ * </pre>
+ * 
+ * @author frank
+ */
+public class CompositeTable<V> {
+
+	/** 组合键槽位，null 表示空槽位 */
+	private final Object[][] keys;
+	/** 索引内容槽位 */
+	private final Object[] slots;
+	/** 槽位掩码 */
+	private final int mask;
+	/** 索引值数量 */
+	private final int size;
+
+	/**
+	 * 构造方法
+	 * 
+	 * @param buckets
+	 *            以组合键(各组成部分的值组成的列表)为键的索引内容
+	 */
+	public CompositeTable(Map<Object, List<V>> buckets) {
+		int capacity = ValueStoreBuilder.tableSize(buckets.size());
+		this.keys = new Object[capacity][];
+		this.slots = new Object[capacity];
+		this.mask = capacity - 1;
+		this.size = buckets.size();
+		for (Entry<Object, List<V>> entry : buckets.entrySet()) {
+			Object[] parts = ((List<?>) entry.getKey()).toArray();
+			int i = hash(parts) & mask;
+			while (keys[i] != null) {
+				i = (i + 1) & mask;
+			}
+			keys[i] = parts;
+			slots[i] = entry.getValue();
+		}
+	}
+
+	/**
+	 * 获取组合键对应的索引内容
+	 * 
+	 * @param parts
+	 *            组合键的各组成部分
+	 * @return 不存在时返回 null
+	 */
+	@SuppressWarnings("unchecked")
+	public List<V> get(Object... parts) {
+		int i = hash(parts) & mask;
+		Object[] key;
+		while ((key = keys[i]) != null) {
+			if (matches(key, parts)) {
+				return (List<V>) slots[i];
+			}
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * 获取索引值数量
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	private static boolean matches(Object[] key, Object[] parts) {
+		if (key.length != parts.length) {
+			return false;
+		}
+		for (int i = 0; i < key.length; i++) {
+			Object part = parts[i];
+			if (part == null ? key[i] != null : !part.equals(key[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int hash(Object[] parts) {
+		int h = 1;
+		for (Object part : parts) {
+			h = 31 * h + (part == null ? 0 : part.hashCode());
+		}
+		return h ^ (h >>> 16);
+	}
+
+}
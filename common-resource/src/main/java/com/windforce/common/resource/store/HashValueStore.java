@@ -0,0 +1,55 @@
+package com.windforce.common.resource.store;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 以 {@link Map} 为底层的主存储结构，用于非 int/long 类型的标识
+ * 
+ * @author frank
+ */
+public class HashValueStore<K, V> implements ValueStore<K, V> {
+
+	private final Map<K, V> values;
+
+	public HashValueStore(Map<K, V> values) {
+		this.values = values;
+	}
+
+	@Override
+	public V get(Object key) {
+		return values.get(key);
+	}
+
+	@Override
+	public V get(int key) {
+		return values.get(key);
+	}
+
+	@Override
+	public V get(long key) {
+		return values.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return values.containsKey(key);
+	}
+
+	@Override
+	public Collection<V> values() {
+		return Collections.unmodifiableCollection(values.values());
+	}
+
+	@Override
+	public int size() {
+		return values.size();
+	}
+
+	@Override
+	public StoreLayout getLayout() {
+		return StoreLayout.HASH;
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.windforce.common.resource.store;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * int 标识的开放寻址主存储结构
+ * 
+ * <pre>
+ * 标识保存在 int[] 中并使用线性探测，按 int 标识查询时不装箱也不经过 {@link java.util.HashMap} 的节点对象。
+ * 按 {@link Object} 查询时与 {@link java.util.HashMap} 的语义保持一致，只有 {@link Integer} 能够命中
+ * </pre>
+ * 
+ * @author frank
+ */
+public class IntValueStore<V> implements ValueStore<Integer, V> {
+
+	/** 标识槽位 */
+	private final int[] keys;
+	/** 值槽位，null 表示空槽位 */
+	private final Object[] slots;
+	/** 槽位掩码 */
+	private final int mask;
+	/** 全部资源实例 */
+	private final Collection<V> values;
+
+	@SuppressWarnings("unchecked")
+	public IntValueStore(Map<Integer, V> values) {
+		int capacity = ValueStoreBuilder.tableSize(values.size());
+		this.keys = new int[capacity];
+		this.slots = new Object[capacity];
+		this.mask = capacity - 1;
+		for (Entry<Integer, V> entry : values.entrySet()) {
+			int key = entry.getKey();
+			int i = hash(key) & mask;
+			while (slots[i] != null) {
+				i = (i + 1) & mask;
+			}
+			keys[i] = key;
+			slots[i] = entry.getValue();
+		}
+		this.values = Collections.unmodifiableList(Arrays.asList((V[]) values.values().toArray()));
+	}
+
+	@Override
+	public V get(Object key) {
+		if (!(key instanceof Integer)) {
+			return null;
+		}
+		return get(((Integer) key).intValue());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int i = hash(key) & mask;
+		Object value;
+		while ((value = slots[i]) != null) {
+			if (keys[i] == key) {
+				return (V) value;
+			}
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	@Override
+	public V get(long key) {
+		if (key < Integer.MIN_VALUE || key > Integer.MAX_VALUE) {
+			return null;
+		}
+		return get((int) key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Collection<V> values() {
+		return values;
+	}
+
+	@Override
+	public int size() {
+		return values.size();
+	}
+
+	@Override
+	public StoreLayout getLayout() {
+		return StoreLayout.INT_HASH;
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.windforce.common.resource.store;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * long 标识的开放寻址主存储结构
+ * 
+ * <pre>
+ * 标识保存在 long[] 中并使用线性探测，按 long/int 标识查询时不装箱。
+ * 按 {@link Object} 查询时与 {@link java.util.HashMap} 的语义保持一致，只有 {@link Long} 能够命中
+ * </pre>
+ * 
+ * @author frank
+ */
+public class LongValueStore<V> implements ValueStore<Long, V> {
+
+	/** 标识槽位 */
+	private final long[] keys;
+	/** 值槽位，null 表示空槽位 */
+	private final Object[] slots;
+	/** 槽位掩码 */
+	private final int mask;
+	/** 全部资源实例 */
+	private final Collection<V> values;
+
+	@SuppressWarnings("unchecked")
+	public LongValueStore(Map<Long, V> values) {
+		int capacity = ValueStoreBuilder.tableSize(values.size());
+		this.keys = new long[capacity];
+		this.slots = new Object[capacity];
+		this.mask = capacity - 1;
+		for (Entry<Long, V> entry : values.entrySet()) {
+			long key = entry.getKey();
+			int i = hash(key) & mask;
+			while (slots[i] != null) {
+				i = (i + 1) & mask;
+			}
+			keys[i] = key;
+			slots[i] = entry.getValue();
+		}
+		this.values = Collections.unmodifiableList(Arrays.asList((V[]) values.values().toArray()));
+	}
+
+	@Override
+	public V get(Object key) {
+		if (!(key instanceof Long)) {
+			return null;
+		}
+		return get(((Long) key).longValue());
+	}
+
+	@Override
+	public V get(int key) {
+		return get((long) key);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int i = hash(key) & mask;
+		Object value;
+		while ((value = slots[i]) != null) {
+			if (keys[i] == key) {
+				return (V) value;
+			}
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Collection<V> values() {
+		return values;
+	}
+
+	@Override
+	public int size() {
+		return values.size();
+	}
+
+	@Override
+	public StoreLayout getLayout() {
+		return StoreLayout.LONG_HASH;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+}
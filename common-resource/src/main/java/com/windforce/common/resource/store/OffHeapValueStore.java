@@ -0,0 +1,429 @@
+package com.windforce.common.resource.store;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.windforce.common.resource.other.Getter;
+import com.windforce.common.resource.other.IdType;
+
+/**
+ * 堆外主存储结构
+ * 
+ * <pre>
+ * 资源实例经{@link RowCodec}编码后连续保存在直接内存中，标识到行序号的开放寻址表同样保存在直接内存中，
+ * 每个槽位由 8 字节标识(非 int/long 标识时为其 hashCode)和 4 字节行序号组成。
+ * 获取时才解码为资源实例，可选地经过一个按行序号直接映射的小型解码缓存
+ * </pre>
+ * 
+ * @author frank
+ */
+public class OffHeapValueStore<K, V> implements ValueStore<K, V> {
+
+	private static final Logger logger = LoggerFactory.getLogger(OffHeapValueStore.class);
+
+	/** 标识表槽位字节数 */
+	private static final int SLOT_SIZE = 12;
+	/** 编码数据的初始容量 */
+	private static final int INITIAL_CAPACITY = 4096;
+	/** 编码数据的容量上限 */
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	/** 解码缓存项 */
+	private static class CacheEntry<V> {
+
+		private final int ordinal;
+		private final V value;
+
+		public CacheEntry(int ordinal, V value) {
+			this.ordinal = ordinal;
+			this.value = value;
+		}
+	}
+
+	/** 标识类型 */
+	private final IdType type;
+	/** 标识获取器，用于校验非 int/long 标识 */
+	private final Getter identifier;
+	/** 编解码器 */
+	private final RowCodec<V> codec;
+	/** 解码后的初始化回调 */
+	private final RowInitializer<V> initializer;
+	/** 资源实例编码数据 */
+	private final ByteBuffer data;
+	/** 每行在编码数据中的起始位置 */
+	private final ByteBuffer offsets;
+	/** 标识到行序号的开放寻址表，行序号以 +1 保存，0 表示空槽位 */
+	private final ByteBuffer slots;
+	/** 槽位掩码 */
+	private final int mask;
+	/** 资源实例数量 */
+	private final int size;
+	/** 解码缓存，不缓存时为 null */
+	private final AtomicReferenceArray<CacheEntry<V>> cache;
+	/** 全部资源实例视图 */
+	private final List<V> values;
+
+	/**
+	 * 构造方法
+	 * 
+	 * @param type
+	 *            标识类型
+	 * @param identifier
+	 *            标识获取器
+	 * @param codec
+	 *            编解码器
+	 * @param initializer
+	 *            解码后的初始化回调
+	 * @param cacheSize
+	 *            解码缓存数量，0表示不缓存
+	 * @param rows
+	 *            全部资源实例，编码后的行序号即为其迭代顺序
+	 */
+	public OffHeapValueStore(IdType type, Getter identifier, RowCodec<V> codec, RowInitializer<V> initializer,
+			int cacheSize, Collection<V> rows) {
+		this.type = type;
+		this.identifier = identifier;
+		this.codec = codec;
+		this.initializer = initializer;
+		this.size = rows.size();
+
+		// 编码资源实例(直接写入直接内存，不在堆内保留编码数据的副本)
+		DirectOutput bytes = new DirectOutput(Math.max(INITIAL_CAPACITY, size * 64));
+		DataOutputStream out = new DataOutputStream(bytes);
+		this.offsets = ByteBuffer.allocateDirect((size + 1) * 4);
+		int capacity = ValueStoreBuilder.tableSize(size);
+		this.mask = capacity - 1;
+		this.slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+		int ordinal = 0;
+		for (V row : rows) {
+			offsets.putInt(ordinal * 4, bytes.position());
+			try {
+				codec.encode(row, out);
+			} catch (IllegalStateException e) {
+				if (!bytes.isOverflow()) {
+					throw e;
+				}
+				FormattingTuple message = MessageFormatter.format("资源[{}]的编码数据超过堆外存储的容量上限",
+						row.getClass().getName());
+				logger.error(message.getMessage());
+				throw new IllegalStateException(message.getMessage(), e);
+			}
+			long key = keyOf(identifier.getValue(row));
+			int i = hash(key) & mask;
+			while (slots.getInt(i * SLOT_SIZE + 8) != 0) {
+				i = (i + 1) & mask;
+			}
+			slots.putLong(i * SLOT_SIZE, key);
+			slots.putInt(i * SLOT_SIZE + 8, ordinal + 1);
+			ordinal++;
+		}
+		offsets.putInt(size * 4, bytes.position());
+		this.data = bytes.toBuffer();
+
+		if (cacheSize > 0) {
+			int length = 1;
+			while (length < cacheSize) {
+				length <<= 1;
+			}
+			this.cache = new AtomicReferenceArray<CacheEntry<V>>(length);
+		} else {
+			this.cache = null;
+		}
+		this.values = new OrdinalList(null);
+	}
+
+	@Override
+	public V get(Object key) {
+		if (key == null) {
+			return null;
+		}
+		switch (type) {
+		case INT:
+			return key instanceof Integer ? find(((Integer) key).longValue(), null) : null;
+		case LONG:
+			return key instanceof Long ? find(((Long) key).longValue(), null) : null;
+		default:
+			return find(keyOf(key), key);
+		}
+	}
+
+	@Override
+	public V get(int key) {
+		if (type == IdType.OBJECT) {
+			return get((Object) key);
+		}
+		return find(key, null);
+	}
+
+	@Override
+	public V get(long key) {
+		switch (type) {
+		case INT:
+			if (key < Integer.MIN_VALUE || key > Integer.MAX_VALUE) {
+				return null;
+			}
+			return find(key, null);
+		case LONG:
+			return find(key, null);
+		default:
+			return get((Object) key);
+		}
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Collection<V> values() {
+		return values;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public StoreLayout getLayout() {
+		return StoreLayout.OFF_HEAP;
+	}
+
+	/**
+	 * 解码指定行序号的资源实例
+	 * 
+	 * @param ordinal
+	 *            行序号
+	 * @return
+	 */
+	public V decode(int ordinal) {
+		if (cache != null) {
+			CacheEntry<V> entry = cache.get(ordinal & (cache.length() - 1));
+			if (entry != null && entry.ordinal == ordinal) {
+				return entry.value;
+			}
+		}
+		ByteBuffer in = data.duplicate();
+		in.position(offsets.getInt(ordinal * 4));
+		V result = codec.decode(in);
+		initializer.initialize(result);
+		if (cache != null) {
+			cache.lazySet(ordinal & (cache.length() - 1), new CacheEntry<V>(ordinal, result));
+		}
+		return result;
+	}
+
+	/**
+	 * 创建按行序号解码的只读列表视图
+	 * 
+	 * @param ordinals
+	 *            行序号
+	 * @return
+	 */
+	public List<V> view(int[] ordinals) {
+		return new OrdinalList(ordinals);
+	}
+
+	/**
+	 * 创建按行序号解码的只读映射视图
+	 * 
+	 * @param ordinals
+	 *            键到行序号的映射
+	 * @return
+	 */
+	public <T> Map<T, V> view(Map<T, Integer> ordinals) {
+		return new OrdinalMap<T>(ordinals);
+	}
+
+	// 内部方法
+
+	private V find(long key, Object verify) {
+		int i = hash(key) & mask;
+		int ordinal;
+		while ((ordinal = slots.getInt(i * SLOT_SIZE + 8)) != 0) {
+			if (slots.getLong(i * SLOT_SIZE) == key) {
+				V result = decode(ordinal - 1);
+				if (verify == null || verify.equals(identifier.getValue(result))) {
+					return result;
+				}
+			}
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	private long keyOf(Object id) {
+		if (type == IdType.OBJECT) {
+			return id.hashCode();
+		}
+		return ((Number) id).longValue();
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * 写入直接内存的输出流，容量不足时按倍数扩容(旧数据在直接内存间复制)
+	 * 
+	 * @author frank
+	 */
+	private static class DirectOutput extends OutputStream {
+
+		private ByteBuffer buffer;
+		/** 是否超过容量上限，超过后不再写入 */
+		private boolean overflow;
+
+		public DirectOutput(int capacity) {
+			this.buffer = ByteBuffer.allocateDirect(Math.min(capacity, MAX_CAPACITY));
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			ensure(1);
+			buffer.put((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			ensure(len);
+			buffer.put(b, off, len);
+		}
+
+		public int position() {
+			return buffer.position();
+		}
+
+		public boolean isOverflow() {
+			return overflow;
+		}
+
+		/** 获取与已写入数据等长的直接内存缓冲区 */
+		public ByteBuffer toBuffer() {
+			buffer.flip();
+			if (buffer.limit() == buffer.capacity()) {
+				return buffer;
+			}
+			ByteBuffer result = ByteBuffer.allocateDirect(buffer.limit());
+			result.put(buffer);
+			buffer = null;
+			return result;
+		}
+
+		private void ensure(int length) throws IOException {
+			if (buffer.remaining() >= length) {
+				return;
+			}
+			long required = (long) buffer.position() + length;
+			if (required > MAX_CAPACITY) {
+				overflow = true;
+				throw new IOException("编码数据超过堆外存储的容量上限");
+			}
+			int capacity = (int) Math.min(MAX_CAPACITY, Math.max(required, (long) buffer.capacity() << 1));
+			ByteBuffer expanded = ByteBuffer.allocateDirect(capacity);
+			buffer.flip();
+			expanded.put(buffer);
+			buffer = expanded;
+		}
+	}
+
+	/** 按行序号解码的只读列表，ordinals 为 null 时表示全部行 */
+	private class OrdinalList extends AbstractList<V> implements RandomAccess {
+
+		private final int[] ordinals;
+
+		public OrdinalList(int[] ordinals) {
+			this.ordinals = ordinals;
+		}
+
+		@Override
+		public V get(int index) {
+			if (ordinals == null) {
+				if (index < 0 || index >= size) {
+					throw new IndexOutOfBoundsException(String.valueOf(index));
+				}
+				return decode(index);
+			}
+			return decode(ordinals[index]);
+		}
+
+		@Override
+		public int size() {
+			return ordinals == null ? size : ordinals.length;
+		}
+	}
+
+	/** 按行序号解码的只读映射 */
+	private class OrdinalMap<T> extends AbstractMap<T, V> {
+
+		private final Map<T, Integer> ordinals;
+
+		public OrdinalMap(Map<T, Integer> ordinals) {
+			this.ordinals = ordinals;
+		}
+
+		@Override
+		public V get(Object key) {
+			Integer ordinal = ordinals.get(key);
+			return ordinal == null ? null : decode(ordinal);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return ordinals.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return ordinals.size();
+		}
+
+		@Override
+		public Set<Entry<T, V>> entrySet() {
+			return new AbstractSet<Entry<T, V>>() {
+				@Override
+				public Iterator<Entry<T, V>> iterator() {
+					final Iterator<Entry<T, Integer>> it = ordinals.entrySet().iterator();
+					return new Iterator<Entry<T, V>>() {
+						@Override
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+
+						@Override
+						public Entry<T, V> next() {
+							Entry<T, Integer> entry = it.next();
+							return new SimpleImmutableEntry<T, V>(entry.getKey(), decode(entry.getValue()));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return ordinals.size();
+				}
+			};
+		}
+	}
+
+}
@@ -0,0 +1,192 @@
+package com.windforce.common.resource.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * 区间索引的有序表
+ * 
+ * <pre>
+ * 索引值按升序存放在 long 数组中，资源实例按相同的顺序存放在支持随机访问的列表中，
+ * 查询通过二分查找定位，单个实例的查询不会创建任何对象
+ * 相同索引值的资源实例保持原有的顺序(声明了排序器时为排序后的顺序)
+ * </pre>
+ * 
+ * @author frank
+ */
+public class RangeTable<V> {
+
+	/** 升序排列的索引值 */
+	private final long[] keys;
+	/** 与索引值一一对应的资源实例 */
+	private final List<V> rows;
+
+	/**
+	 * 构造方法
+	 * 
+	 * @param keys
+	 *            升序排列的索引值
+	 * @param rows
+	 *            与索引值一一对应的资源实例，必须支持随机访问
+	 */
+	public RangeTable(long[] keys, List<V> rows) {
+		if (keys.length != rows.size()) {
+			throw new IllegalArgumentException("区间索引的索引值数量与资源实例数量不一致");
+		}
+		this.keys = keys;
+		this.rows = rows;
+	}
+
+	/**
+	 * 使用列表索引的内容创建区间索引
+	 * 
+	 * @param buckets
+	 *            以整数索引值为键的索引内容
+	 * @return
+	 */
+	public static <V> RangeTable<V> valueOf(Map<Object, List<V>> buckets) {
+		List<Entry<Object, List<V>>> entries = new ArrayList<Entry<Object, List<V>>>(buckets.entrySet());
+		final long[] order = new long[entries.size()];
+		int count = 0;
+		for (int i = 0; i < order.length; i++) {
+			Object key = entries.get(i).getKey();
+			if (key == null) {
+				throw new IllegalArgumentException("区间索引的索引值不能为 null");
+			}
+			order[i] = ((Number) key).longValue();
+			count += entries.get(i).getValue().size();
+		}
+		// 按索引值对索引内容排序
+		Integer[] positions = new Integer[order.length];
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = i;
+		}
+		Arrays.sort(positions, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Long.compare(order[o1], order[o2]);
+			}
+		});
+
+		long[] keys = new long[count];
+		List<V> rows = new ArrayList<V>(count);
+		for (Integer position : positions) {
+			for (V value : entries.get(position).getValue()) {
+				keys[rows.size()] = order[position];
+				rows.add(value);
+			}
+		}
+		return new RangeTable<V>(keys, rows);
+	}
+
+	/**
+	 * 使用新的资源实例列表替换当前的资源实例列表(例如只读列表或堆外存储视图)
+	 * 
+	 * @param rows
+	 *            与当前资源实例列表内容一致的新列表
+	 * @return
+	 */
+	public RangeTable<V> replaceRows(List<V> rows) {
+		return new RangeTable<V>(keys, rows);
+	}
+
+	/**
+	 * 获取索引值小于等于指定值的最大资源实例，相同索引值时返回最后一个
+	 * 
+	 * @param value
+	 *            指定值
+	 * @return 不存在时返回 null
+	 */
+	public V floor(long value) {
+		int i = upperBound(value) - 1;
+		return i < 0 ? null : rows.get(i);
+	}
+
+	/**
+	 * 获取索引值大于等于指定值的最小资源实例，相同索引值时返回第一个
+	 * 
+	 * @param value
+	 *            指定值
+	 * @return 不存在时返回 null
+	 */
+	public V ceiling(long value) {
+		int i = lowerBound(value);
+		return i >= keys.length ? null : rows.get(i);
+	}
+
+	/**
+	 * 获取索引值在指定闭区间内的资源实例
+	 * 
+	 * @param from
+	 *            区间起始值(包含)
+	 * @param to
+	 *            区间结束值(包含)
+	 * @return 返回的列表是只读的
+	 */
+	@SuppressWarnings("unchecked")
+	public List<V> range(long from, long to) {
+		if (from > to) {
+			return Collections.EMPTY_LIST;
+		}
+		int start = lowerBound(from);
+		int end = upperBound(to);
+		if (start >= end) {
+			return Collections.EMPTY_LIST;
+		}
+		return rows.subList(start, end);
+	}
+
+	/**
+	 * 获取全部资源实例(按索引值升序)
+	 * 
+	 * @return
+	 */
+	public List<V> getRows() {
+		return rows;
+	}
+
+	/**
+	 * 获取资源实例数量
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return keys.length;
+	}
+
+	/** 第一个索引值大于等于指定值的位置 */
+	private int lowerBound(long value) {
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid] < value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/** 第一个索引值大于指定值的位置 */
+	private int upperBound(long value) {
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid] <= value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+}
@@ -0,0 +1,337 @@
+package com.windforce.common.resource.store;
+
+import java.util.Arrays;
+
+/**
+ * 资源实例行序号的位图
+ * 
+ * <pre>
+ * 每个 long 存放 64 个行序号，只保存第一个与最后一个非零字之间的部分并记录起始字的位置：
+ * 1.资源表通常按类别成组配置，低基数属性值对应的行大多集中在某个区段内，首尾的空白不占空间
+ * 2.与、或、非运算按字进行，只处理两个位图重叠(或覆盖)的区段
+ * 位图创建后不再修改，运算总是返回新的位图，可以被任意线程安全地共享
+ * </pre>
+ * 
+ * @author frank
+ */
+public final class RowBitmap {
+
+	/** 空位图 */
+	public static final RowBitmap EMPTY = new RowBitmap(0, new long[0]);
+
+	/** 第一个字对应的字序号 */
+	private final int offset;
+	/** 首尾均不为零的位图内容 */
+	private final long[] words;
+	/** 行序号数量 */
+	private final int cardinality;
+
+	private RowBitmap(int offset, long[] words) {
+		this.offset = offset;
+		this.words = words;
+		int count = 0;
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+		this.cardinality = count;
+	}
+
+	/**
+	 * 使用位图内容创建位图，首尾的零字会被去除
+	 * 
+	 * @param offset
+	 *            第一个字对应的字序号
+	 * @param words
+	 *            位图内容
+	 * @return
+	 */
+	private static RowBitmap valueOf(int offset, long[] words) {
+		int from = 0;
+		int to = words.length;
+		while (from < to && words[from] == 0) {
+			from++;
+		}
+		while (to > from && words[to - 1] == 0) {
+			to--;
+		}
+		if (from == to) {
+			return EMPTY;
+		}
+		if (from == 0 && to == words.length) {
+			return new RowBitmap(offset, words);
+		}
+		return new RowBitmap(offset + from, Arrays.copyOfRange(words, from, to));
+	}
+
+	/**
+	 * 创建包含指定行序号的位图
+	 * 
+	 * @param rows
+	 *            行序号
+	 * @return
+	 */
+	public static RowBitmap of(int... rows) {
+		Builder builder = new Builder();
+		for (int row : rows) {
+			builder.add(row);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * 创建包含[0, size)全部行序号的位图
+	 * 
+	 * @param size
+	 *            行数
+	 * @return
+	 */
+	public static RowBitmap full(int size) {
+		if (size <= 0) {
+			return EMPTY;
+		}
+		long[] words = new long[wordCount(size)];
+		Arrays.fill(words, -1L);
+		words[words.length - 1] = -1L >>> (words.length * 64 - size);
+		return new RowBitmap(0, words);
+	}
+
+	/**
+	 * 检查是否包含指定行序号
+	 * 
+	 * @param row
+	 *            行序号
+	 * @return
+	 */
+	public boolean contains(int row) {
+		if (row < 0) {
+			return false;
+		}
+		int i = (row >>> 6) - offset;
+		if (i < 0 || i >= words.length) {
+			return false;
+		}
+		return (words[i] & (1L << row)) != 0;
+	}
+
+	/**
+	 * 获取大于等于指定值的第一个行序号
+	 * 
+	 * @param from
+	 *            起始行序号(包含)
+	 * @return 不存在时返回 -1
+	 */
+	public int nextRow(int from) {
+		if (from < 0) {
+			from = 0;
+		}
+		int i = (from >>> 6) - offset;
+		long word;
+		if (i < 0) {
+			i = 0;
+			word = words.length == 0 ? 0 : words[0];
+		} else if (i >= words.length) {
+			return -1;
+		} else {
+			word = words[i] & (-1L << from);
+		}
+		while (true) {
+			if (word != 0) {
+				return ((i + offset) << 6) + Long.numberOfTrailingZeros(word);
+			}
+			if (++i >= words.length) {
+				return -1;
+			}
+			word = words[i];
+		}
+	}
+
+	/**
+	 * 与运算
+	 * 
+	 * @param other
+	 * @return 同时包含在两个位图中的行序号
+	 */
+	public RowBitmap and(RowBitmap other) {
+		int from = Math.max(offset, other.offset);
+		int to = Math.min(end(), other.end());
+		if (from >= to) {
+			return EMPTY;
+		}
+		long[] result = new long[to - from];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = words[from - offset + i] & other.words[from - other.offset + i];
+		}
+		return valueOf(from, result);
+	}
+
+	/**
+	 * 或运算
+	 * 
+	 * @param other
+	 * @return 包含在任意一个位图中的行序号
+	 */
+	public RowBitmap or(RowBitmap other) {
+		if (other.words.length == 0) {
+			return this;
+		}
+		if (words.length == 0) {
+			return other;
+		}
+		int from = Math.min(offset, other.offset);
+		int to = Math.max(end(), other.end());
+		long[] result = new long[to - from];
+		System.arraycopy(words, 0, result, offset - from, words.length);
+		for (int i = 0; i < other.words.length; i++) {
+			result[other.offset - from + i] |= other.words[i];
+		}
+		return new RowBitmap(from, result);
+	}
+
+	/**
+	 * 差运算
+	 * 
+	 * @param other
+	 * @return 包含在当前位图但不包含在另一个位图中的行序号
+	 */
+	public RowBitmap andNot(RowBitmap other) {
+		int from = Math.max(offset, other.offset);
+		int to = Math.min(end(), other.end());
+		if (from >= to) {
+			return this;
+		}
+		long[] result = words.clone();
+		for (int i = from; i < to; i++) {
+			result[i - offset] &= ~other.words[i - other.offset];
+		}
+		return valueOf(offset, result);
+	}
+
+	/**
+	 * 非运算
+	 * 
+	 * @param size
+	 *            行数
+	 * @return [0, size)中不包含在当前位图中的行序号
+	 */
+	public RowBitmap not(int size) {
+		return full(size).andNot(this);
+	}
+
+	/**
+	 * 获取行序号数量
+	 * 
+	 * @return
+	 */
+	public int cardinality() {
+		return cardinality;
+	}
+
+	/**
+	 * 检查是否不包含任何行序号
+	 * 
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return cardinality == 0;
+	}
+
+	/**
+	 * 获取升序排列的全部行序号
+	 * 
+	 * @return
+	 */
+	public int[] toArray() {
+		int[] result = new int[cardinality];
+		int count = 0;
+		for (int i = 0; i < words.length; i++) {
+			long word = words[i];
+			int base = (i + offset) << 6;
+			while (word != 0) {
+				result[count++] = base + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+		}
+		return result;
+	}
+
+	/** 最后一个字之后的字序号 */
+	private int end() {
+		return offset + words.length;
+	}
+
+	private static int wordCount(int size) {
+		return (size + 63) >>> 6;
+	}
+
+	@Override
+	public int hashCode() {
+		return offset * 31 + Arrays.hashCode(words);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof RowBitmap)) {
+			return false;
+		}
+		RowBitmap other = (RowBitmap) obj;
+		return offset == other.offset && Arrays.equals(words, other.words);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	/**
+	 * 位图构建器，行序号需要按升序添加
+	 * 
+	 * @author frank
+	 */
+	public static class Builder {
+
+		private long[] words = new long[1];
+		/** 第一个行序号对应的字序号，未添加时为 -1 */
+		private int offset = -1;
+		/** 最后一个添加的行序号 */
+		private int last = -1;
+
+		/**
+		 * 添加行序号
+		 * 
+		 * @param row
+		 *            行序号，必须大于之前添加的全部行序号
+		 * @return
+		 */
+		public Builder add(int row) {
+			if (row <= last) {
+				throw new IllegalArgumentException("行序号[" + row + "]必须按升序添加");
+			}
+			last = row;
+			if (offset < 0) {
+				offset = row >>> 6;
+			}
+			int i = (row >>> 6) - offset;
+			if (i >= words.length) {
+				words = Arrays.copyOf(words, Math.max(i + 1, words.length * 2));
+			}
+			words[i] |= 1L << row;
+			return this;
+		}
+
+		/**
+		 * 创建位图
+		 * 
+		 * @return
+		 */
+		public RowBitmap build() {
+			if (offset < 0) {
+				return EMPTY;
+			}
+			return valueOf(offset, Arrays.copyOf(words, (last >>> 6) - offset + 1));
+		}
+	}
+
+}
@@ -0,0 +1,265 @@
+package com.windforce.common.resource.store;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.alibaba.fastjson.JSON;
+import com.windforce.common.resource.anno.Inject;
+import com.windforce.common.resource.other.Accessors;
+import com.windforce.common.resource.other.Getter;
+import com.windforce.common.resource.other.Setter;
+
+/**
+ * 资源实例的二进制编解码器
+ * 
+ * <pre>
+ * 按属性声明顺序依次编码，基本类型及其包装类型、字符串、枚举使用定长或带长度前缀的二进制格式，
+ * 其他类型(List/Map/嵌套对象等)编码为 JSON。{@link Inject} 声明的属性不参与编码，由解码后的初始化回调重新注入
+ * </pre>
+ * 
+ * @author frank
+ */
+public class RowCodec<V> {
+
+	private static final Logger logger = LoggerFactory.getLogger(RowCodec.class);
+
+	/** 属性编码类型 */
+	private static enum Kind {
+		INT, LONG, DOUBLE, FLOAT, SHORT, BYTE, BOOLEAN, CHAR, STRING, ENUM, JSON;
+	}
+
+	/** 属性编解码信息 */
+	private static class FieldInfo {
+
+		private final Field field;
+		private final Getter getter;
+		private final Setter setter;
+		private final Kind kind;
+		private final boolean primitive;
+		/** 枚举属性的枚举值(按序号)，非枚举属性为 null */
+		private final Object[] constants;
+
+		public FieldInfo(Field field) {
+			this.field = field;
+			this.getter = Accessors.getter(field);
+			this.setter = Accessors.setter(field);
+			this.primitive = field.getType().isPrimitive();
+			this.kind = kindOf(field.getType());
+			this.constants = kind == Kind.ENUM ? field.getType().getEnumConstants() : null;
+		}
+
+		public void write(Object row, DataOutputStream out) throws Exception {
+			Object value = getter.getValue(row);
+			if (!primitive) {
+				if (value == null) {
+					out.writeByte(0);
+					return;
+				}
+				out.writeByte(1);
+			}
+			switch (kind) {
+			case INT:
+				out.writeInt((Integer) value);
+				break;
+			case LONG:
+				out.writeLong((Long) value);
+				break;
+			case DOUBLE:
+				out.writeDouble((Double) value);
+				break;
+			case FLOAT:
+				out.writeFloat((Float) value);
+				break;
+			case SHORT:
+				out.writeShort((Short) value);
+				break;
+			case BYTE:
+				out.writeByte((Byte) value);
+				break;
+			case BOOLEAN:
+				out.writeBoolean((Boolean) value);
+				break;
+			case CHAR:
+				out.writeChar((Character) value);
+				break;
+			case STRING:
+				writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+				break;
+			case ENUM:
+				out.writeInt(((Enum<?>) value).ordinal());
+				break;
+			default:
+				writeBytes(out, JSON.toJSONBytes(value));
+				break;
+			}
+		}
+
+		public void read(Object row, ByteBuffer in) throws Exception {
+			if (!primitive && in.get() == 0) {
+				return;
+			}
+			Object value = null;
+			switch (kind) {
+			case INT:
+				value = in.getInt();
+				break;
+			case LONG:
+				value = in.getLong();
+				break;
+			case DOUBLE:
+				value = in.getDouble();
+				break;
+			case FLOAT:
+				value = in.getFloat();
+				break;
+			case SHORT:
+				value = in.getShort();
+				break;
+			case BYTE:
+				value = in.get();
+				break;
+			case BOOLEAN:
+				value = in.get() != 0;
+				break;
+			case CHAR:
+				value = in.getChar();
+				break;
+			case STRING:
+				value = new String(readBytes(in), StandardCharsets.UTF_8);
+				break;
+			case ENUM:
+				value = constants[in.getInt()];
+				break;
+			default:
+				value = JSON.parseObject(new String(readBytes(in), StandardCharsets.UTF_8), field.getGenericType());
+				break;
+			}
+			setter.setValue(row, value);
+		}
+
+		private static Kind kindOf(Class<?> type) {
+			if (type == int.class || type == Integer.class) {
+				return Kind.INT;
+			}
+			if (type == long.class || type == Long.class) {
+				return Kind.LONG;
+			}
+			if (type == double.class || type == Double.class) {
+				return Kind.DOUBLE;
+			}
+			if (type == float.class || type == Float.class) {
+				return Kind.FLOAT;
+			}
+			if (type == short.class || type == Short.class) {
+				return Kind.SHORT;
+			}
+			if (type == byte.class || type == Byte.class) {
+				return Kind.BYTE;
+			}
+			if (type == boolean.class || type == Boolean.class) {
+				return Kind.BOOLEAN;
+			}
+			if (type == char.class || type == Character.class) {
+				return Kind.CHAR;
+			}
+			if (type == String.class) {
+				return Kind.STRING;
+			}
+			if (type.isEnum()) {
+				return Kind.ENUM;
+			}
+			return Kind.JSON;
+		}
+	}
+
+	/** 资源类 */
+	private final Class<V> clz;
+	/** 实例创建器 */
+	private final Supplier<V> constructor;
+	/** 参与编码的属性 */
+	private final FieldInfo[] fields;
+
+	public RowCodec(Class<V> clz) {
+		this.clz = clz;
+		this.constructor = Accessors.constructor(clz);
+		List<FieldInfo> result = new ArrayList<FieldInfo>();
+		for (Class<?> current = clz; current != null && current != Object.class; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+					continue;
+				}
+				if (field.isAnnotationPresent(Inject.class)) {
+					continue;
+				}
+				result.add(new FieldInfo(field));
+			}
+		}
+		this.fields = result.toArray(new FieldInfo[result.size()]);
+	}
+
+	/**
+	 * 编码资源实例
+	 * 
+	 * @param value
+	 *            资源实例
+	 * @param out
+	 *            输出流
+	 */
+	public void encode(V value, DataOutputStream out) {
+		try {
+			for (FieldInfo info : fields) {
+				info.write(value, out);
+			}
+		} catch (Exception e) {
+			FormattingTuple message = MessageFormatter.format("资源[{}]的实例无法编码", clz.getName());
+			logger.error(message.getMessage(), e);
+			throw new IllegalStateException(message.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 从当前位置开始解码一个资源实例
+	 * 
+	 * @param in
+	 *            数据缓冲区，解码后位置移动到该实例的结尾
+	 * @return
+	 */
+	public V decode(ByteBuffer in) {
+		try {
+			V result = constructor.get();
+			for (FieldInfo info : fields) {
+				info.read(result, in);
+			}
+			return result;
+		} catch (Exception e) {
+			FormattingTuple message = MessageFormatter.format("资源[{}]的实例无法解码", clz.getName());
+			logger.error(message.getMessage(), e);
+			throw new IllegalStateException(message.getMessage(), e);
+		}
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return bytes;
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.windforce.common.resource.store;
+
+/**
+ * 资源实例解码后的初始化回调
+ * 
+ * @author frank
+ */
+public interface RowInitializer<V> {
+
+	/**
+	 * 初始化解码得到的资源实例
+	 * 
+	 * @param value
+	 *            资源实例
+	 */
+	void initialize(V value);
+
+}
@@ -0,0 +1,21 @@
+package com.windforce.common.resource.store;
+
+/**
+ * 主存储结构布局
+ * 
+ * @author frank
+ */
+public enum StoreLayout {
+
+	/** {@link java.util.HashMap} 存储 */
+	HASH,
+	/** int 标识开放寻址表 */
+	INT_HASH,
+	/** long 标识开放寻址表 */
+	LONG_HASH,
+	/** 以 (标识 - 最小标识) 为下标的数组 */
+	ARRAY,
+	/** 编码后保存在堆外内存 */
+	OFF_HEAP;
+
+}
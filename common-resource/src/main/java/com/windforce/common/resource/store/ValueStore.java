@@ -0,0 +1,68 @@
+package com.windforce.common.resource.store;
+
+import java.util.Collection;
+
+/**
+ * 资源主存储结构接口，构建完成后只读
+ * 
+ * @author frank
+ */
+public interface ValueStore<K, V> {
+
+	/**
+	 * 获取指定标识对应的资源实例
+	 * 
+	 * @param key
+	 *            标识
+	 * @return 不存在时返回 null
+	 */
+	V get(Object key);
+
+	/**
+	 * 以 int 标识获取资源实例，int/long 类型标识的存储结构不会产生装箱
+	 * 
+	 * @param key
+	 *            标识
+	 * @return 不存在时返回 null
+	 */
+	V get(int key);
+
+	/**
+	 * 以 long 标识获取资源实例，int/long 类型标识的存储结构不会产生装箱
+	 * 
+	 * @param key
+	 *            标识
+	 * @return 不存在时返回 null
+	 */
+	V get(long key);
+
+	/**
+	 * 是否包含指定的标识
+	 * 
+	 * @param key
+	 * @return
+	 */
+	boolean containsKey(Object key);
+
+	/**
+	 * 获取全部的资源实例
+	 * 
+	 * @return 只读集合
+	 */
+	Collection<V> values();
+
+	/**
+	 * 获取资源实例数量
+	 * 
+	 * @return
+	 */
+	int size();
+
+	/**
+	 * 获取存储结构布局
+	 * 
+	 * @return
+	 */
+	StoreLayout getLayout();
+
+}
@@ -0,0 +1,90 @@
+package com.windforce.common.resource.store;
+
+import java.util.Map;
+
+import com.windforce.common.resource.other.IdType;
+
+/**
+ * 主存储结构创建器
+ * 
+ * @author frank
+ */
+public class ValueStoreBuilder {
+
+	/** 开放寻址表的最大装载因子 */
+	private static final float LOAD_FACTOR = 0.5F;
+	/** 使用数组存储的最低稠密度(资源数量 / 标识跨度) */
+	private static final float DENSE_FACTOR = 0.5F;
+
+	/**
+	 * 根据标识类型创建主存储结构
+	 * 
+	 * <pre>
+	 * int/long 标识足够稠密时使用数组存储，否则使用开放寻址表，其他类型标识使用{@link java.util.HashMap}
+	 * </pre>
+	 * 
+	 * @param type
+	 *            标识类型
+	 * @param values
+	 *            已加载的全部资源实例
+	 * @return
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <K, V> ValueStore<K, V> create(IdType type, Map<K, V> values) {
+		if (type != IdType.OBJECT && !values.isEmpty()) {
+			long min = Long.MAX_VALUE;
+			long max = Long.MIN_VALUE;
+			for (K key : values.keySet()) {
+				long id = ((Number) key).longValue();
+				min = Math.min(min, id);
+				max = Math.max(max, id);
+			}
+			if (isDense(values.size(), min, max)) {
+				return new ArrayValueStore<K, V>(type, min, max, values);
+			}
+		}
+		switch (type) {
+		case INT:
+			return (ValueStore<K, V>) new IntValueStore<V>((Map) values);
+		case LONG:
+			return (ValueStore<K, V>) new LongValueStore<V>((Map) values);
+		default:
+			return new HashValueStore<K, V>(values);
+		}
+	}
+
+	/**
+	 * 检查标识集合是否足够稠密，可以使用数组存储
+	 * 
+	 * @param size
+	 *            资源数量
+	 * @param min
+	 *            最小标识
+	 * @param max
+	 *            最大标识
+	 * @return
+	 */
+	static boolean isDense(int size, long min, long max) {
+		long span = max - min + 1;
+		if (span <= 0 || span > Integer.MAX_VALUE - 8) {
+			return false;
+		}
+		return size >= span * DENSE_FACTOR;
+	}
+
+	/**
+	 * 计算开放寻址表的容量(2的幂)
+	 * 
+	 * @param size
+	 *            元素数量
+	 * @return
+	 */
+	static int tableSize(int size) {
+		int capacity = 2;
+		while (capacity * LOAD_FACTOR < size + 1) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+}
@@ -1,24 +1,67 @@
 package com.windforce.common.resource.excel;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.util.ReflectionUtils;
 
+import com.windforce.common.resource.BitmapQuery;
 import com.windforce.common.resource.Storage;
+import com.windforce.common.resource.StorageChange;
+import com.windforce.common.resource.StorageFootprint;
+import com.windforce.common.resource.StorageListener;
 import com.windforce.common.resource.StorageManager;
+import com.windforce.common.resource.StorageStats;
+import com.windforce.common.resource.StorageView;
+import com.windforce.common.resource.StorageViews;
 import com.windforce.common.resource.anno.Static;
+import com.windforce.common.resource.other.Accessors;
+import com.windforce.common.resource.other.Deduplicator;
+import com.windforce.common.resource.other.DeepEquals;
+import com.windforce.common.resource.other.Getter;
+import com.windforce.common.resource.other.IdType;
+import com.windforce.common.resource.other.Setter;
+import com.windforce.common.resource.reader.ExcelReader;
+import com.windforce.common.resource.schema.StaticObserver;
+import com.windforce.common.resource.store.OffHeapValueStore;
+import com.windforce.common.resource.store.RowBitmap;
+import com.windforce.common.resource.store.RowCodec;
+import com.windforce.common.resource.store.RowInitializer;
+import com.windforce.common.resource.store.StoreLayout;
 
 /**
  * 静态资源注入基本功能测试用例
@@ -33,6 +76,10 @@ public class BasicTest {
 	private StorageManager resourceManager;
 	@Static
 	private Storage<Integer, Human> storage;
+	@Static
+	private Storage<Integer, Item> itemStorage;
+	@Static
+	private Storage<Integer, Drop> dropStorage;
 	@Static("1")
 	private Human human1;
 	@Static("2")
@@ -79,6 +126,280 @@ public class BasicTest {
 		assertEquals(p1.getLegType(), LEG.ONE);
 	}
 
+	/**
+	 * 测试使用基本类型标识获取资源
+	 */
+	@Test
+	public void test_get_primitive() {
+		assertThat(storage.get(1, true), sameInstance(human1));
+		assertThat(storage.get(2L, true), sameInstance(human2));
+		assertThat(storage.get(Integer.valueOf(1), true), sameInstance(human1));
+		assertThat(storage.get(-1, false), nullValue());
+		assertThat(storage.containsId(1), is(true));
+	}
+
+	/**
+	 * 测试连续标识使用数组存储
+	 */
+	@Test
+	public void test_stats_layout() {
+		StorageStats stats = storage.getStats();
+		assertThat(stats.getLayout(), is(StoreLayout.ARRAY));
+		assertThat(stats.getSize(), is(storage.getAll().size()));
+	}
+
+	/**
+	 * 测试存储空间运行时计数
+	 */
+	@Test
+	public void test_stats_metrics() {
+		StorageStats before = storage.getStats();
+		storage.get(1, false);
+		storage.get(-1, false);
+		storage.getIndex(Human.INDEX_AGE, 32);
+		storage.getUnique(Human.INDEX_NAME, "Nobody");
+		StorageStats after = storage.getStats();
+		assertThat(after.isLoaded(), is(true));
+		assertThat(after.getGets() - before.getGets(), is(2L));
+		assertThat(after.getGetMisses() - before.getGetMisses(), is(1L));
+		assertThat(after.getIndexQueries() - before.getIndexQueries(), is(1L));
+		assertThat(after.getIndexMisses() - before.getIndexMisses(), is(0L));
+		assertThat(after.getUniqueMisses() - before.getUniqueMisses(), is(1L));
+		assertThat(after.getReloads() > 0, is(true));
+		assertThat(after.getIndexSizes().get(Human.INDEX_NAME), is(storage.getAll().size()));
+
+		boolean found = false;
+		for (StorageStats stats : resourceManager.stats()) {
+			if (stats.getClz() == Human.class) {
+				found = true;
+			}
+		}
+		assertThat(found, is(true));
+	}
+
+	/**
+	 * 测试堆外存储的资源获取
+	 */
+	@Test
+	public void test_off_heap() {
+		assertThat(itemStorage.getStats().getLayout(), is(StoreLayout.OFF_HEAP));
+		assertThat(itemStorage.getAll().size(), is(3));
+
+		Item item = itemStorage.get(1, true);
+		assertThat(item.getName(), is("Sword"));
+		assertThat(item.getQuality(), is(LEG.ONE));
+		assertThat(item.getPrice(), is(100L));
+		assertThat(item.getValues().get(2), is(3));
+		assertThat(item.getPets().get(1).getName(), is("Mimi"));
+		assertThat(itemStorage.get(2, true).getPrice(), nullValue());
+		assertThat(itemStorage.get(4, false), nullValue());
+
+		List<Item> items = itemStorage.getIndex(Item.INDEX_TYPE, 1);
+		assertThat(items.size(), is(2));
+		assertThat(items.get(1).getName(), is("Axe"));
+		assertThat(itemStorage.getUnique(Item.INDEX_NAME, "Shield").getId(), is(2));
+	}
+
+	/**
+	 * 测试堆外存储编码数据超过初始容量时的扩容
+	 */
+	@Test
+	public void test_off_heap_expand() throws Exception {
+		StringBuilder name = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			name.append('n');
+		}
+		List<Pet> pets = new ArrayList<Pet>();
+		for (int i = 0; i < 500; i++) {
+			Pet pet = new Pet();
+			pet.setId(i);
+			pet.setName(name.toString() + i);
+			pets.add(pet);
+		}
+		OffHeapValueStore<Integer, Pet> store = new OffHeapValueStore<Integer, Pet>(IdType.INT,
+				Accessors.getter(Pet.class.getDeclaredField("id")), new RowCodec<Pet>(Pet.class),
+				new RowInitializer<Pet>() {
+					@Override
+					public void initialize(Pet value) {
+					}
+				}, 0, pets);
+		assertThat(store.size(), is(500));
+		assertThat(store.get(0).getName(), is(name.toString() + 0));
+		assertThat(store.get(499).getName(), is(name.toString() + 499));
+		assertThat(store.values().size(), is(500));
+	}
+
+	/**
+	 * 测试存储空间内存占用估算
+	 */
+	@Test
+	public void test_footprint() {
+		StorageFootprint footprint = storage.getFootprint();
+		assertThat(footprint.getSize(), is(storage.getAll().size()));
+		assertThat(footprint.getValuesBytes() > 0, is(true));
+		assertThat(footprint.getIndexBytes().get(Human.INDEX_NAME) > 0, is(true));
+		assertThat(footprint.getIndexBytes().get(Human.INDEX_SEX) > 0, is(true));
+		assertThat(footprint.getIndexBytes().containsKey(Human.INDEX_AGE_SEX), is(true));
+		assertThat(footprint.getOffHeapBytes(), is(0L));
+		assertThat(footprint.getTotalBytes() > footprint.getValuesBytes(), is(true));
+
+		StorageFootprint offHeap = itemStorage.getFootprint();
+		assertThat(offHeap.getOffHeapBytes() > 0, is(true));
+		assertThat(offHeap.getIndexBytes().get(Item.INDEX_LEVEL) > 0, is(true));
+
+		boolean found = false;
+		for (StorageFootprint each : resourceManager.footprint()) {
+			if (each.getClz() == Item.class) {
+				found = true;
+			}
+		}
+		assertThat(found, is(true));
+	}
+
+	/**
+	 * 测试流式读取(多个工作表并行解析)与工作簿读取的结果一致
+	 */
+	@Test
+	public void test_read_streaming() throws Exception {
+		ExcelReader streaming = new ExcelReader();
+		streaming.setParallelism(4);
+		ExcelReader workbook = new ExcelReader();
+		workbook.setStreaming(false);
+		for (Class<?> clz : new Class<?>[] { Human.class, Pet.class }) {
+			String file = clz.getSimpleName() + ".xlsx";
+			List<?> expected;
+			try (InputStream input = BasicTest.class.getResourceAsStream(file)) {
+				expected = workbook.read(input, clz);
+			}
+			List<?> actual;
+			try (InputStream input = BasicTest.class.getResourceAsStream(file)) {
+				actual = streaming.read(input, clz);
+			}
+			assertThat(actual.isEmpty(), is(false));
+			assertThat(actual.size(), is(expected.size()));
+			assertThat(DeepEquals.equals(actual, expected), is(true));
+		}
+	}
+
+	/**
+	 * 测试流式读取与工作簿读取一样按不区分大小写的资源类名选择工作表
+	 */
+	@Test
+	public void test_read_sheet_name() throws Exception {
+		Workbook wb = new XSSFWorkbook();
+		String[][] sheets = { { "other", "99" }, { "pet", "1" } };
+		for (String[] content : sheets) {
+			Sheet sheet = wb.createSheet(content[0]);
+			Row header = sheet.createRow(0);
+			header.createCell(0).setCellValue("SERVER");
+			header.createCell(1).setCellValue("id");
+			header.createCell(2).setCellValue("name");
+			Row row = sheet.createRow(1);
+			row.createCell(1).setCellValue(content[1]);
+			row.createCell(2).setCellValue(content[0]);
+		}
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		wb.write(output);
+		byte[] data = output.toByteArray();
+
+		ExcelReader streaming = new ExcelReader();
+		ExcelReader workbook = new ExcelReader();
+		workbook.setStreaming(false);
+		for (ExcelReader reader : new ExcelReader[] { streaming, workbook }) {
+			List<Pet> pets = reader.read(new ByteArrayInputStream(data), Pet.class);
+			assertThat(pets.size(), is(1));
+			assertThat(pets.get(0).getId(), is(1));
+			assertThat(pets.get(0).getName(), is("pet"));
+		}
+	}
+
+	/**
+	 * 测试分批转换的数据行保持原有顺序，并抛出顺序最前的行的转换异常
+	 */
+	@Test
+	public void test_read_pipeline() throws Exception {
+		ExcelReader parallel = new ExcelReader();
+		parallel.setParallelism(4);
+		ExcelReader sequential = new ExcelReader();
+		sequential.setStreaming(false);
+		sequential.setParallelism(1);
+
+		byte[] data = createPets(1000);
+		for (ExcelReader reader : new ExcelReader[] { parallel, sequential }) {
+			List<Pet> pets = reader.read(new ByteArrayInputStream(data), Pet.class);
+			assertThat(pets.size(), is(1000));
+			for (int i = 0; i < pets.size(); i++) {
+				assertThat(pets.get(i).getId(), is(i + 1));
+			}
+		}
+
+		data = createPets(1000, 700, 900);
+		for (ExcelReader reader : new ExcelReader[] { parallel, sequential }) {
+			try {
+				reader.read(new ByteArrayInputStream(data), Pet.class);
+				fail();
+			} catch (IllegalStateException e) {
+				assertThat(e.getMessage().contains("内容[x700]"), is(true));
+			}
+		}
+	}
+
+	/**
+	 * 测试嵌套泛型的 JSON 属性
+	 */
+	@Test
+	public void test_read_generic_json() throws Exception {
+		Workbook wb = new XSSFWorkbook();
+		Sheet sheet = wb.createSheet("Reward");
+		String[][] rows = {
+				{ "SERVER", "id", "groups", "legs", "pets", "names" },
+				{ "", "1", "[{1:{\"id\":1,\"name\":\"a\"}},{2:{\"id\":2,\"name\":\"b\"}}]", "{\"ONE\":1,\"TWO\":2}",
+						"{10000000000:[{\"id\":3,\"name\":\"c\"}]}", "{\"x\":\"y\"}" } };
+		for (int i = 0; i < rows.length; i++) {
+			Row row = sheet.createRow(i);
+			for (int j = 0; j < rows[i].length; j++) {
+				row.createCell(j).setCellValue(rows[i][j]);
+			}
+		}
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		wb.write(output);
+
+		List<Reward> rewards = new ExcelReader().read(new ByteArrayInputStream(output.toByteArray()), Reward.class);
+		assertThat(rewards.size(), is(1));
+		Reward reward = rewards.get(0);
+		assertThat(reward.getGroups().size(), is(2));
+		assertThat(reward.getGroups().get(0).get(1).getName(), is("a"));
+		assertThat(reward.getGroups().get(1).get(2).getId(), is(2));
+		assertThat(reward.getLegs().get(LEG.ONE), is(1));
+		assertThat(reward.getLegs().get(LEG.TWO), is(2));
+		assertThat(reward.getPets().get(10000000000L).get(0).getName(), is("c"));
+		assertThat(reward.getNames().get("x"), is("y"));
+	}
+
+	/** 创建包含指定行数的宠物表，指定的行使用无效的标识，数据之后为空标识行与不应被读取的行 */
+	private byte[] createPets(int rows, int... invalids) throws Exception {
+		Workbook wb = new XSSFWorkbook();
+		Sheet sheet = wb.createSheet("Pet");
+		Row header = sheet.createRow(0);
+		header.createCell(0).setCellValue("SERVER");
+		header.createCell(1).setCellValue("id");
+		header.createCell(2).setCellValue("name");
+		for (int i = 1; i <= rows + 2; i++) {
+			Row row = sheet.createRow(i);
+			String id = i <= rows ? String.valueOf(i) : i == rows + 1 ? "" : "-1";
+			for (int invalid : invalids) {
+				if (i == invalid) {
+					id = "x" + i;
+				}
+			}
+			row.createCell(1).setCellValue(id);
+			row.createCell(2).setCellValue("pet" + i);
+		}
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		wb.write(output);
+		return output.toByteArray();
+	}
+
 	/**
 	 * 测试唯一索引获取
 	 */
@@ -110,6 +431,495 @@ public class BasicTest {
 		assertThat(p2, sameInstance(human1));
 	}
 
+	/**
+	 * 测试组合索引获取
+	 */
+	@Test
+	public void test_index_composite() {
+		List<Human> list = storage.getCompositeIndex(Human.INDEX_AGE_SEX, 32, human1.isSex());
+		assertThat(list.contains(human1), is(true));
+		for (Human human : list) {
+			assertThat(human.getAge(), is(32));
+			assertThat(human.isSex(), is(human1.isSex()));
+		}
+		assertThat(storage.getIndex(Human.INDEX_AGE_SEX, 32).isEmpty(), is(true));
+		assertThat(storage.getCompositeIndex(Human.INDEX_AGE_SEX, 999, true).isEmpty(), is(true));
+
+		Item item = itemStorage.getCompositeUnique(Item.INDEX_TYPE_NAME, 1, "Axe");
+		assertThat(item.getId(), is(3));
+		assertThat(itemStorage.getCompositeUnique(Item.INDEX_TYPE_NAME, 2, "Axe"), nullValue());
+		assertThat(storage.getCompositeIndex(Human.INDEX_AGE_SEX, null).isEmpty(), is(true));
+	}
+
+	/**
+	 * 测试以 null 为索引值获取索引内容
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void test_index_null() {
+		Storage<Integer, Score> scores = (Storage<Integer, Score>) resourceManager.getStorage(Score.class);
+		reloadScores(scores, "[{\"id\":1,\"value\":10,\"tag\":\"a\"},{\"id\":2,\"value\":20},{\"id\":3,\"value\":30}]");
+		List<Score> list = scores.getIndex(Score.INDEX_TAG, null);
+		assertThat(list.size(), is(2));
+		for (Score score : list) {
+			assertThat(score.getTag(), nullValue());
+		}
+		assertThat(scores.getIndex(Score.INDEX_TAG, "a").get(0).getId(), is(1));
+		assertThat(scores.query().where(Score.INDEX_TAG, null).count(), is(2));
+		assertThat(scores.query().where(Score.INDEX_TAG, "a").first().getId(), is(1));
+	}
+
+	/**
+	 * 测试区间索引获取
+	 */
+	@Test
+	public void test_index_range() {
+		assertThat(itemStorage.floor(Item.INDEX_LEVEL, 15).getId(), is(3));
+		assertThat(itemStorage.floor(Item.INDEX_LEVEL, 20).getId(), is(2));
+		assertThat(itemStorage.floor(Item.INDEX_LEVEL, 5), nullValue());
+		assertThat(itemStorage.ceiling(Item.INDEX_LEVEL, 10).getId(), is(1));
+		assertThat(itemStorage.ceiling(Item.INDEX_LEVEL, 11).getId(), is(2));
+		assertThat(itemStorage.ceiling(Item.INDEX_LEVEL, 21), nullValue());
+
+		List<Item> items = itemStorage.range(Item.INDEX_LEVEL, 0, 100);
+		assertThat(items.size(), is(3));
+		assertThat(items.get(0).getId(), is(1));
+		assertThat(items.get(1).getId(), is(3));
+		assertThat(items.get(2).getId(), is(2));
+		assertThat(itemStorage.range(Item.INDEX_LEVEL, 11, 19).isEmpty(), is(true));
+		assertThat(itemStorage.range(Item.INDEX_LEVEL, 20, 10).isEmpty(), is(true));
+	}
+
+	/**
+	 * 测试位图索引的组合查询
+	 */
+	@Test
+	public void test_index_bitmap() {
+		BitmapQuery<Human> humans = storage.bitmapQuery();
+		List<Human> list = humans.list(humans.get(Human.INDEX_SEX, true));
+		assertThat(list.size(), is(2));
+		assertThat(list.get(0), sameInstance(human1));
+		assertThat(humans.first(humans.not(humans.get(Human.INDEX_SEX, true))), sameInstance(human2));
+		assertThat(storage.getIndex(Human.INDEX_SEX, false).size(), is(1));
+
+		// 堆外存储的资源
+		BitmapQuery<Item> items = itemStorage.bitmapQuery();
+		RowBitmap type = items.get(Item.INDEX_TYPE, 1);
+		RowBitmap quality = items.get(Item.INDEX_QUALITY, LEG.TWO);
+		assertThat(items.list(type.and(quality)).get(0).getName(), is("Axe"));
+		assertThat(type.or(quality).cardinality(), is(3));
+		assertThat(items.list(type.andNot(quality)).get(0).getName(), is("Sword"));
+		assertThat(items.list(items.not(type)).get(0).getName(), is("Shield"));
+		assertThat(items.anyOf(Item.INDEX_QUALITY, LEG.ONE, LEG.TWO), is(items.all()));
+		assertThat(items.get(Item.INDEX_QUALITY, null).isEmpty(), is(true));
+		assertThat(items.list(items.get("unknown", 1)).isEmpty(), is(true));
+
+		// 跨越多个字的位运算
+		RowBitmap left = RowBitmap.of(1, 130, 500, 701);
+		RowBitmap right = RowBitmap.of(130, 701, 900);
+		assertThat(left.and(right), is(RowBitmap.of(130, 701)));
+		assertThat(left.or(right), is(RowBitmap.of(1, 130, 500, 701, 900)));
+		assertThat(left.andNot(right), is(RowBitmap.of(1, 500)));
+		assertThat(right.not(1000).cardinality(), is(997));
+		assertThat(right.not(1000).contains(900), is(false));
+		assertThat(left.nextRow(131), is(500));
+		assertThat(left.nextRow(702), is(-1));
+	}
+
+	/**
+	 * 测试多条件查询
+	 */
+	@Test
+	public void test_query() {
+		List<Human> list = storage.query().where(Human.INDEX_AGE, 32).where(Human.INDEX_SEX, true).list();
+		assertThat(list.size(), is(2));
+		assertThat(list.get(0).getName(), is("Kyle"));
+		assertThat(list.get(1), sameInstance(human1));
+
+		Comparator<Human> byId = new Comparator<Human>() {
+			@Override
+			public int compare(Human o1, Human o2) {
+				return o1.getId().compareTo(o2.getId());
+			}
+		};
+		assertThat(storage.query().where(Human.INDEX_AGE, 32).orderBy(byId).first(), sameInstance(human1));
+		list = storage.query().orderBy(byId).limit(2).list();
+		assertThat(list.size(), is(2));
+		assertThat(list.get(0), sameInstance(human1));
+		assertThat(list.get(1), sameInstance(human2));
+		Human kyle = storage.query().where(Human.INDEX_SEX, true).filter(new Predicate<Human>() {
+			@Override
+			public boolean test(Human human) {
+				return human.getName().startsWith("K");
+			}
+		}).first();
+		assertThat(kyle.getId(), is(3));
+		assertThat(storage.query().where(Human.INDEX_AGE, 32).count(), is(2));
+		assertThat(storage.query().where(Human.INDEX_AGE, 32).limit(1).count(), is(1));
+		assertThat(storage.query().where(Human.INDEX_AGE, 99).where(Human.INDEX_SEX, true).list().isEmpty(), is(true));
+		assertThat(storage.query().where("unknown", 1).count(), is(0));
+
+		// 唯一索引、组合索引与区间索引
+		assertThat(itemStorage.query().where(Item.INDEX_NAME, "Shield").first().getId(), is(2));
+		assertThat(itemStorage.query().whereComposite(Item.INDEX_TYPE_NAME, 1, "Axe").first().getId(), is(3));
+		List<Item> items = itemStorage.query().where(Item.INDEX_TYPE, 1).between(Item.INDEX_LEVEL, 5, 15).list();
+		assertThat(items.size(), is(2));
+		assertThat(items.get(0).getName(), is("Sword"));
+		assertThat(items.get(1).getName(), is("Axe"));
+		items = itemStorage.query().where(Item.INDEX_QUALITY, LEG.TWO).where(Item.INDEX_LEVEL, 20).list();
+		assertThat(items.size(), is(1));
+		assertThat(items.get(0).getName(), is("Shield"));
+		assertThat(itemStorage.query().whereComposite(Item.INDEX_TYPE_NAME, 2, "Axe").count(), is(0));
+	}
+
+	/**
+	 * 测试聚合视图
+	 */
+	@Test
+	public void test_view() {
+		Function<Item, Integer> type = new Function<Item, Integer>() {
+			@Override
+			public Integer apply(Item item) {
+				return item.getType();
+			}
+		};
+		ToLongFunction<Item> price = new ToLongFunction<Item>() {
+			@Override
+			public long applyAsLong(Item item) {
+				return item.getPrice() == null ? 0 : item.getPrice();
+			}
+		};
+		ToLongFunction<Item> level = new ToLongFunction<Item>() {
+			@Override
+			public long applyAsLong(Item item) {
+				return item.getLevel();
+			}
+		};
+		itemStorage.addView("count", StorageViews.count(type));
+		itemStorage.addView("price", StorageViews.sum(type, price));
+		itemStorage.addView("level", StorageViews.max(type, level));
+		itemStorage.addView("total", new StorageView<Item, Integer>() {
+			@Override
+			public Integer compute(Collection<Item> values) {
+				return values.size();
+			}
+		});
+		try {
+			Map<Integer, Integer> counts = itemStorage.getView("count");
+			assertThat(counts.get(1), is(2));
+			assertThat(counts.get(2), is(1));
+			Map<Integer, Long> prices = itemStorage.getView("price");
+			assertThat(prices.get(1), is(400L));
+			assertThat(prices.get(2), is(0L));
+			Map<Integer, Long> levels = itemStorage.getView("level");
+			assertThat(levels.get(2), is(20L));
+			assertThat(itemStorage.<Integer> getView("total"), is(3));
+
+			itemStorage.removeView("total");
+			assertThat(itemStorage.getView("total"), nullValue());
+			// 重新加载后重新计算视图内容
+			itemStorage.reload();
+			assertThat(itemStorage.<Map<Integer, Long>> getView("price"), is(prices));
+		} finally {
+			itemStorage.removeView("count");
+			itemStorage.removeView("price");
+			itemStorage.removeView("level");
+		}
+	}
+
+	/**
+	 * 测试聚合视图随重新加载的快照重新计算
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void test_view_reload() {
+		Storage<Integer, Score> scores = (Storage<Integer, Score>) resourceManager.getStorage(Score.class);
+		reloadScores(scores, "[{\"id\":1,\"value\":10},{\"id\":2,\"value\":10},{\"id\":3,\"value\":20}]");
+		scores.addView("value", StorageViews.count(new Function<Score, Integer>() {
+			@Override
+			public Integer apply(Score score) {
+				return score.getValue();
+			}
+		}));
+		try {
+			Map<Integer, Integer> values = scores.getView("value");
+			assertThat(values.get(10), is(2));
+			assertThat(values.get(20), is(1));
+
+			reloadScores(scores, "[{\"id\":1,\"value\":10},{\"id\":2,\"value\":20},{\"id\":3,\"value\":20}]");
+			Map<Integer, Integer> reloaded = scores.getView("value");
+			assertThat(reloaded, not(sameInstance(values)));
+			assertThat(reloaded.get(10), is(1));
+			assertThat(reloaded.get(20), is(2));
+			// 已获取的视图内容不受重新加载影响
+			assertThat(values.get(10), is(2));
+		} finally {
+			scores.removeView("value");
+		}
+		assertThat(scores.getView("value"), nullValue());
+	}
+
+	/**
+	 * 测试加载时的属性值去重
+	 */
+	@Test
+	public void test_dedup() {
+		Drop drop1 = dropStorage.get(1, true);
+		Drop drop2 = dropStorage.get(2, true);
+		Drop drop3 = dropStorage.get(3, true);
+		assertThat(drop2.getIcon(), sameInstance(drop1.getIcon()));
+		assertThat(drop2.getItems(), sameInstance(drop1.getItems()));
+		assertThat(drop3.getItems(), not(sameInstance(drop1.getItems())));
+		assertThat(drop3.getItems().get(0), sameInstance(drop1.getItems().get(0)));
+		assertThat(drop3.getPet().getName(), sameInstance(drop1.getPet().getName()));
+		assertThat(drop3.getPet().getId(), is(2));
+		// 可变的嵌套对象不共享，共享的列表是只读的
+		assertThat(drop2.getPet(), not(sameInstance(drop1.getPet())));
+		assertThat(drop2.getPet().getName(), sameInstance(drop1.getPet().getName()));
+		try {
+			drop1.getItems().add(1004);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			assertThat(drop2.getItems().size(), is(2));
+		}
+	}
+
+	/**
+	 * 测试不可变的嵌套对象共享，可变的数组与列表不共享
+	 */
+	@Test
+	public void test_dedup_immutable() {
+		Deduplicator deduplicator = new Deduplicator();
+		Cost[] rows = new Cost[2];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = new Cost(new Amount(new String("gold"), 10), new int[] { 1, 2 }, new ArrayList<Pet>());
+			deduplicator.dedup(rows[i]);
+		}
+		assertThat(rows[1].amount, sameInstance(rows[0].amount));
+		assertThat(rows[1].values, not(sameInstance(rows[0].values)));
+		assertThat(rows[1].pets, not(sameInstance(rows[0].pets)));
+	}
+
+	/** 属性全部为 final 的不可变对象 */
+	private static class Amount {
+		private final String type;
+		private final int value;
+
+		public Amount(String type, int value) {
+			this.type = type;
+			this.value = value;
+		}
+	}
+
+	/** 包含不可变对象与可变属性值的资源 */
+	private static class Cost {
+		private Amount amount;
+		private int[] values;
+		/** 声明为具体类型的列表无法替换为只读视图 */
+		private ArrayList<Pet> pets;
+
+		public Cost(Amount amount, int[] values, ArrayList<Pet> pets) {
+			this.amount = amount;
+			this.values = values;
+			this.pets = pets;
+		}
+	}
+
+	/**
+	 * 测试列表索引返回只读的共享列表
+	 */
+	@Test(expected = UnsupportedOperationException.class)
+	public void test_index_list_readonly() {
+		List<Human> list = storage.getIndex(Human.INDEX_AGE, 32);
+		assertThat(storage.getIndex(Human.INDEX_AGE, 32), sameInstance(list));
+		list.add(human1);
+	}
+
+	/**
+	 * 测试内容未变化时重新加载会保留原有实例与索引内容
+	 */
+	@Test
+	public void test_reload_unchanged() {
+		Human human = storage.get(1, true);
+		List<Human> list = storage.getIndex(Human.INDEX_AGE, 32);
+		storage.reload();
+		assertThat(storage.get(1, true), sameInstance(human));
+		assertThat(storage.getIndex(Human.INDEX_AGE, 32), sameInstance(list));
+		assertThat(storage.getUnique(Human.INDEX_NAME, "Frank"), sameInstance(human));
+	}
+
+	/**
+	 * 测试后台重新加载
+	 */
+	@Test
+	public void test_reload_async() throws Exception {
+		Human human = storage.get(1, true);
+		List<StorageChange<?, ?>> changes = resourceManager.reloadAsync(Item.class, Human.class).get();
+		assertThat(changes.size(), is(2));
+		for (StorageChange<?, ?> change : changes) {
+			if (change.getStorage() == storage) {
+				assertThat(change.isEmpty(), is(true));
+			} else {
+				assertThat((Object) change.getStorage(), sameInstance((Object) itemStorage));
+				assertThat(change.getRemoved().isEmpty(), is(true));
+			}
+		}
+		assertThat(storage.get(1, true), sameInstance(human));
+		assertThat(itemStorage.get(1, true).getName(), is("Sword"));
+	}
+
+	/**
+	 * 测试后台重新加载时前一个资源的通知异常不影响后一个资源的通知与加载结果
+	 */
+	@Test
+	public void test_reload_async_notify_failure() throws Exception {
+		Observer failure = new Observer() {
+			@Override
+			public void update(Observable o, Object arg) {
+				throw new IllegalStateException("notify failure");
+			}
+		};
+		final AtomicInteger notified = new AtomicInteger();
+		Observer counter = new Observer() {
+			@Override
+			public void update(Observable o, Object arg) {
+				notified.incrementAndGet();
+			}
+		};
+		// 按资源类名排序，Human 先于 Item 发布
+		storage.addObserver(failure);
+		itemStorage.addObserver(counter);
+		try {
+			List<StorageChange<?, ?>> changes = resourceManager.reloadAsync(Item.class, Human.class).get();
+			assertThat(changes.size(), is(2));
+			assertThat(notified.get(), is(1));
+		} finally {
+			storage.deleteObserver(failure);
+			itemStorage.deleteObserver(counter);
+		}
+	}
+
+	/**
+	 * 测试变更监听器的变更内容，以及资源实例注入只在注入的资源实例变更时重新注入
+	 */
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void test_listener() throws Exception {
+		Storage<Integer, Score> scores = (Storage<Integer, Score>) resourceManager.getStorage(Score.class);
+		reloadScores(scores, "[{\"id\":1,\"value\":10},{\"id\":2,\"value\":20},{\"id\":3,\"value\":30}]");
+		Score unchanged = scores.get(3, true);
+
+		final List<StorageChange<Integer, Score>> changes = new ArrayList<StorageChange<Integer, Score>>();
+		StorageListener<Integer, Score> listener = new StorageListener<Integer, Score>() {
+			@Override
+			public void onChange(StorageChange<Integer, Score> change) {
+				changes.add(change);
+			}
+		};
+		ScoreTarget target = new ScoreTarget();
+		Field field = ScoreTarget.class.getDeclaredField("score");
+		ReflectionUtils.makeAccessible(field);
+		StaticObserver observer = new StaticObserver(target, field, field.getAnnotation(Static.class), 1);
+		scores.addListener(listener);
+		((Storage) scores).addListener(observer);
+		try {
+			// 只修改没有被注入的资源实例
+			reloadScores(scores, "[{\"id\":1,\"value\":10},{\"id\":2,\"value\":21},{\"id\":4,\"value\":40}]");
+			assertThat(changes.size(), is(1));
+			StorageChange<Integer, Score> change = changes.get(0);
+			assertThat(change.getStorage(), sameInstance(scores));
+			assertThat(change.isChanged(1), is(false));
+			assertThat(change.isChanged(2), is(true));
+			assertThat(change.isChanged(3), is(true));
+			assertThat(change.getAdded().contains(4), is(true));
+			assertThat(change.getRemoved().contains(3), is(true));
+			assertThat(unchanged.getValue(), is(30));
+			assertThat(target.score, nullValue());
+
+			// 修改被注入的资源实例
+			reloadScores(scores, "[{\"id\":1,\"value\":11},{\"id\":2,\"value\":21},{\"id\":4,\"value\":40}]");
+			assertThat(changes.size(), is(2));
+			assertThat(target.score.getValue(), is(11));
+			assertThat(target.score, sameInstance(scores.get(1, true)));
+		} finally {
+			scores.removeListener(listener);
+			((Storage) scores).removeListener(observer);
+		}
+	}
+
+	/** 手动注册{@link StaticObserver}的注入目标 */
+	private static class ScoreTarget {
+		@Static("1")
+		private Score score;
+	}
+
+	/** 替换缓存数据源的内容后重新加载(未初始化时先完成延迟加载) */
+	private void reloadScores(Storage<Integer, Score> scores, String json) {
+		StorageManager.putCache(Score.CACHE, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+		scores.getAll();
+		StorageManager.putCache(Score.CACHE, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+		scores.reload();
+	}
+
+	/**
+	 * 测试延迟加载的资源在首次访问时加载，并发的首次访问共享同一次加载
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void test_lazy() throws Exception {
+		final Storage<Integer, Stage> stages = (Storage<Integer, Stage>) resourceManager.getStorage(Stage.class);
+		assertThat(stages.isInitialized(), is(false));
+
+		final CountDownLatch start = new CountDownLatch(1);
+		final Stage[] result = new Stage[2];
+		Thread[] threads = new Thread[result.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					result[index] = stages.get(1, false);
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertThat(stages.isInitialized(), is(true));
+		assertThat(result[0].getName(), is("Forest"));
+		assertThat(result[1], sameInstance(result[0]));
+		assertThat(stages.getAll().size(), is(2));
+	}
+
+	/**
+	 * 测试延迟加载失败后的访问不会读取到空的快照，数据源恢复后可以重新加载
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void test_lazy_failure() throws Exception {
+		Storage<Integer, Rank> ranks = (Storage<Integer, Rank>) resourceManager.getStorage(Rank.class);
+		for (int i = 0; i < 2; i++) {
+			try {
+				ranks.get(1, false);
+				fail();
+			} catch (IllegalStateException e) {
+				assertThat(ranks.isInitialized(), is(false));
+			}
+		}
+
+		StorageManager.putCache(Rank.CACHE,
+				new ByteArrayInputStream("[{\"id\":1,\"name\":\"Gold\"}]".getBytes(StandardCharsets.UTF_8)));
+		assertThat(ranks.get(1, true).getName(), is("Gold"));
+		assertThat(ranks.isInitialized(), is(true));
+	}
+
 	/**
 	 * 测试资源实例注入
 	 * @throws InterruptedException 
@@ -132,4 +942,38 @@ public class BasicTest {
 		assertThat(human1, sameInstance(humanOther));
 	}
 
+	/**
+	 * 测试访问器(私有属性、基本类型属性、公开方法与构造方法)
+	 */
+	@Test
+	public void test_accessors() throws Exception {
+		Human human = Accessors.constructor(Human.class).get();
+		assertThat(human, notNullValue());
+
+		Setter name = Accessors.setter(Human.class.getDeclaredField("name"));
+		Setter age = Accessors.setter(Human.class.getDeclaredField("age"));
+		name.setValue(human, "Frank");
+		age.setValue(human, 32);
+		assertThat(human.getName(), is("Frank"));
+		assertThat(human.getAge(), is(32));
+
+		Getter field = Accessors.getter(Human.class.getDeclaredField("age"));
+		Getter method = Accessors.getter(Human.class.getMethod("getName"));
+		assertThat((Integer) field.getValue(human), is(32));
+		assertThat((String) method.getValue(human), is("Frank"));
+
+		Getter constant = Accessors.getter(Human.class.getField("INDEX_NAME"));
+		assertThat((String) constant.getValue(null), is(Human.INDEX_NAME));
+
+		// 基本类型属性不经过装箱设置，类型不一致时抛出异常
+		age.setInt(human, 33);
+		assertThat(human.getAge(), is(33));
+		try {
+			age.setLong(human, 34L);
+			fail();
+		} catch (IllegalStateException e) {
+			assertThat(human.getAge(), is(33));
+		}
+	}
+
 }
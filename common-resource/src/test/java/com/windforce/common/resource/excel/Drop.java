@@ -0,0 +1,49 @@
+package com.windforce.common.resource.excel;
+
+import java.util.List;
+
+import com.windforce.common.resource.anno.Id;
+import com.windforce.common.resource.anno.Resource;
+
+@Resource(format = "json", suffix = "json", dedup = true)
+public class Drop {
+
+	@Id
+	private int id;
+	private String icon;
+	private List<Integer> items;
+	private Pet pet;
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getIcon() {
+		return icon;
+	}
+
+	public void setIcon(String icon) {
+		this.icon = icon;
+	}
+
+	public List<Integer> getItems() {
+		return items;
+	}
+
+	public void setItems(List<Integer> items) {
+		this.items = items;
+	}
+
+	public Pet getPet() {
+		return pet;
+	}
+
+	public void setPet(Pet pet) {
+		this.pet = pet;
+	}
+
+}
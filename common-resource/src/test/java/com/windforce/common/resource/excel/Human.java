@@ -4,15 +4,20 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
+import com.windforce.common.resource.anno.CompositeIndex;
 import com.windforce.common.resource.anno.Id;
 import com.windforce.common.resource.anno.Index;
+import com.windforce.common.resource.anno.IndexType;
 import com.windforce.common.resource.anno.Resource;
 
 @Resource
+@CompositeIndex(name = Human.INDEX_AGE_SEX, fields = { "age", "sex" }, comparatorClz = Human.HumanComparator.class)
 public class Human {
 
 	public static final String INDEX_NAME = "human_name";
 	public static final String INDEX_AGE = "human_age";
+	public static final String INDEX_AGE_SEX = "human_age_sex";
+	public static final String INDEX_SEX = "human_sex";
 
 	public static final class HumanComparator implements Comparator<Human> {
 		@Override
@@ -27,6 +32,7 @@ public class Human {
 	private String name;
 	@Index(name = INDEX_AGE, comparatorClz = HumanComparator.class)
 	private int age;
+	@Index(name = INDEX_SEX, type = IndexType.BITMAP)
 	private boolean sex;
 	private List<Pet> petList;
 	private Map<Integer, Pet> petMap;
@@ -0,0 +1,100 @@
+package com.windforce.common.resource.excel;
+
+import java.util.List;
+import java.util.Map;
+
+import com.windforce.common.resource.anno.CompositeIndex;
+import com.windforce.common.resource.anno.Id;
+import com.windforce.common.resource.anno.Index;
+import com.windforce.common.resource.anno.IndexType;
+import com.windforce.common.resource.anno.Resource;
+
+@CompositeIndex(name = Item.INDEX_TYPE_NAME, fields = { "type", "name" }, unique = true)
+@Resource(format = "json", suffix = "json", offHeap = true, decodeCache = 4)
+public class Item {
+
+	public static final String INDEX_TYPE = "item_type";
+	public static final String INDEX_NAME = "item_name";
+	public static final String INDEX_TYPE_NAME = "item_type_name";
+	public static final String INDEX_LEVEL = "item_level";
+	public static final String INDEX_QUALITY = "item_quality";
+
+	@Id
+	private int id;
+	@Index(name = INDEX_NAME, unique = true)
+	private String name;
+	@Index(name = INDEX_TYPE, type = IndexType.BITMAP)
+	private int type;
+	@Index(name = INDEX_LEVEL, type = IndexType.RANGE)
+	private int level;
+	@Index(name = INDEX_QUALITY, type = IndexType.BITMAP)
+	private LEG quality;
+	private Long price;
+	private List<Integer> values;
+	private Map<Integer, Pet> pets;
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getType() {
+		return type;
+	}
+
+	public void setType(int type) {
+		this.type = type;
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public void setLevel(int level) {
+		this.level = level;
+	}
+
+	public LEG getQuality() {
+		return quality;
+	}
+
+	public void setQuality(LEG quality) {
+		this.quality = quality;
+	}
+
+	public Long getPrice() {
+		return price;
+	}
+
+	public void setPrice(Long price) {
+		this.price = price;
+	}
+
+	public List<Integer> getValues() {
+		return values;
+	}
+
+	public void setValues(List<Integer> values) {
+		this.values = values;
+	}
+
+	public Map<Integer, Pet> getPets() {
+		return pets;
+	}
+
+	public void setPets(Map<Integer, Pet> pets) {
+		this.pets = pets;
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.windforce.common.resource.excel;
+
+import com.windforce.common.resource.anno.Id;
+import com.windforce.common.resource.anno.Resource;
+
+/**
+ * 从缓存数据源延迟加载的资源，缓存内容不存在时加载失败
+ * @author frank
+ */
+@Resource(format = "json", suffix = "json", cache = Rank.CACHE, lazy = true)
+public class Rank {
+
+	public static final String CACHE = "test_rank";
+
+	@Id
+	private int id;
+	private String name;
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+}
@@ -44,6 +44,7 @@ public class ReloadTest {
 		assertThat(human.isSex(), is(true));
 		Human target = storage.get(1, true);
 		assertThat(target, sameInstance(human));
+		Human unchanged = storage.get(3, true);
 
 		// 覆盖文件
 		override();
@@ -69,6 +70,8 @@ public class ReloadTest {
 		assertThat(human.isSex(), is(false));
 		target = storage.get(1, true);
 		assertThat(target, sameInstance(human));
+		// 内容没有变化的资源实例保持不变
+		assertThat(storage.get(3, true), sameInstance(unchanged));
 		
 	}
 	
@@ -0,0 +1,61 @@
+package com.windforce.common.resource.excel;
+
+import java.util.List;
+import java.util.Map;
+
+import com.windforce.common.resource.anno.Id;
+
+/**
+ * 嵌套泛型属性的资源(只用于直接读取测试，不注册为资源)
+ * @author frank
+ */
+public class Reward {
+
+	@Id
+	private int id;
+	private List<Map<Integer, Pet>> groups;
+	private Map<LEG, Integer> legs;
+	private Map<Long, List<Pet>> pets;
+	private Map<String, String> names;
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public List<Map<Integer, Pet>> getGroups() {
+		return groups;
+	}
+
+	public void setGroups(List<Map<Integer, Pet>> groups) {
+		this.groups = groups;
+	}
+
+	public Map<LEG, Integer> getLegs() {
+		return legs;
+	}
+
+	public void setLegs(Map<LEG, Integer> legs) {
+		this.legs = legs;
+	}
+
+	public Map<Long, List<Pet>> getPets() {
+		return pets;
+	}
+
+	public void setPets(Map<Long, List<Pet>> pets) {
+		this.pets = pets;
+	}
+
+	public Map<String, String> getNames() {
+		return names;
+	}
+
+	public void setNames(Map<String, String> names) {
+		this.names = names;
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.windforce.common.resource.excel;
+
+import com.windforce.common.resource.anno.Id;
+import com.windforce.common.resource.anno.Index;
+import com.windforce.common.resource.anno.Resource;
+
+/**
+ * 从缓存数据源加载的资源，测试中替换缓存内容后重新加载
+ * @author frank
+ */
+@Resource(format = "json", suffix = "json", cache = Score.CACHE, lazy = true)
+public class Score {
+
+	public static final String CACHE = "test_score";
+	public static final String INDEX_TAG = "score_tag";
+
+	@Id
+	private int id;
+	private int value;
+	@Index(name = INDEX_TAG)
+	private String tag;
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public int getValue() {
+		return value;
+	}
+
+	public void setValue(int value) {
+		this.value = value;
+	}
+
+	public String getTag() {
+		return tag;
+	}
+
+	public void setTag(String tag) {
+		this.tag = tag;
+	}
+
+}
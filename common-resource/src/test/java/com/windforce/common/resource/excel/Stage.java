@@ -0,0 +1,29 @@
+package com.windforce.common.resource.excel;
+
+import com.windforce.common.resource.anno.Id;
+import com.windforce.common.resource.anno.Resource;
+
+@Resource(format = "json", suffix = "json", lazy = true)
+public class Stage {
+
+	@Id
+	private int id;
+	private String name;
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+}